@@ -0,0 +1,201 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+This class scores a stream of packed hands for the /api/score/batch endpoint, without creating a Card or Hand per hand.
+
+Request format, 5 bytes per hand:
+    - bytes 0-3: ordinals (0-51, see ScoringEngine) of the four hand cards
+    - byte 4: ordinal of the faceUpCard in the low 6 bits, with CRIB_FLAG (0x80) set when the cards are a crib
+
+Response format, 1 byte per hand, in request order:
+    - the SHOW score (0-29). Cribs only score a flush when the faceUpCard matches (ScoringEngine.calculateCribPoints).
+    - INVALID (0xFF) if an ordinal is out of range or a card appears twice
+
+Hands are read and written a block at a time through two fixed buffers, so the response streams out while the request
+is still arriving and memory use doesn't grow with the batch size. A trailing partial record is ignored.
+
+Responsibilities:
+    - Decode the packed hands, score them and write the packed scores
+    - Score through VectorScoring's SIMD lanes when it is switched on (cribbage.vector-scoring), otherwise use the
+        shared ScoreTable when one is configured, otherwise ScoringEngine
+
+Relies upon:
+    - ScoringEngine for scores and crib flushes
+    - ScoreTable for table lookups
+    - VectorScoring for the SIMD path
+ */
+
+public final class BatchScorer {
+
+    public static final int RECORD_BYTES = 5;
+    public static final int CRIB_FLAG = 0x80;
+    public static final int INVALID = 0xFF;
+
+    // hands per read/write
+    private static final int BLOCK_RECORDS = 4096;
+
+    private final ScoreTable table;
+    private final byte[] records = new byte[BLOCK_RECORDS * RECORD_BYTES];
+    private final byte[] scores = new byte[BLOCK_RECORDS];
+
+    // only used when VectorScoring is switched on: the valid hands of a block, and each record's lane (-1 if invalid)
+    private final VectorScoring.Batch batch;
+    private final int[] batchScores;
+    private final int[] lanes;
+
+    /*
+    Constructor. table can be null, in which case every hand is scored with ScoringEngine.
+     */
+    private BatchScorer(ScoreTable table) {
+        this.table = table;
+        boolean vector = VectorScoring.isEnabled();
+        this.batch = vector ? VectorScoring.Batch.of(BLOCK_RECORDS) : null;
+        this.batchScores = vector ? new int[BLOCK_RECORDS] : null;
+        this.lanes = vector ? new int[BLOCK_RECORDS] : null;
+    }
+
+    /*
+    Factory method. Returns a BatchScorer that uses the shared ScoreTable, if one is configured.
+    A BatchScorer holds its buffers, so use one per request.
+     */
+    public static BatchScorer of() {
+        return new BatchScorer(ScoreTable.shared());
+    }
+
+    /*
+    Factory method. Returns a BatchScorer that uses table (null for ScoringEngine only).
+     */
+    public static BatchScorer of(ScoreTable table) {
+        return new BatchScorer(table);
+    }
+
+    /*
+    Reads packed hands from in until it ends, writing one score byte per hand to out.
+    Returns the number of hands scored. Neither stream is closed.
+     */
+    public long score(InputStream in, OutputStream out) throws IOException {
+        long hands = 0;
+        int filled = 0;
+
+        int read;
+        while ((read = in.read(records, filled, records.length - filled)) != -1) {
+            filled += read;
+            int complete = filled / RECORD_BYTES;
+            if (complete == 0) {
+                continue;
+            }
+
+            scoreBlock(complete);
+            out.write(scores, 0, complete);
+            out.flush();
+            hands += complete;
+
+            // keep the bytes of a record that was split across reads
+            int used = complete * RECORD_BYTES;
+            System.arraycopy(records, used, records, 0, filled - used);
+            filled -= used;
+        }
+        return hands;
+    }
+
+    /*
+    Scores the first count records of the block into scores.
+     */
+    private void scoreBlock(int count) {
+        if (batch == null) {
+            for (int i = 0; i < count; i++) {
+                scores[i] = (byte) scoreRecord(records, i * RECORD_BYTES);
+            }
+            return;
+        }
+
+        batch.clear();
+        for (int i = 0; i < count; i++) {
+            int offset = i * RECORD_BYTES;
+            long handMask = handMask(records, offset);
+            if (handMask < 0) {
+                lanes[i] = -1;
+            } else {
+                int last = records[offset + ScoreTable.HAND_SIZE] & 0xFF;
+                lanes[i] = batch.size();
+                batch.add(handMask, last & 0x3F, (last & CRIB_FLAG) != 0);
+            }
+        }
+
+        VectorScoring.score(batch, batchScores);
+        for (int i = 0; i < count; i++) {
+            scores[i] = (byte) (lanes[i] < 0 ? INVALID : batchScores[lanes[i]]);
+        }
+    }
+
+    /*
+    Returns the score of the record starting at offset, or INVALID.
+     */
+    int scoreRecord(byte[] data, int offset) {
+        long handMask = handMask(data, offset);
+        if (handMask < 0) {
+            return INVALID;
+        }
+
+        int last = data[offset + ScoreTable.HAND_SIZE] & 0xFF;
+        boolean isCrib = (last & CRIB_FLAG) != 0;
+        return score(handMask, last & 0x3F, isCrib);
+    }
+
+    /*
+    Returns the bitmask of the four hand cards of the record starting at offset, or -1 if the record is invalid.
+     */
+    static long handMask(byte[] data, int offset) {
+        long handMask = 0L;
+        for (int i = 0; i < ScoreTable.HAND_SIZE; i++) {
+            int ordinal = data[offset + i] & 0xFF;
+            if (ordinal >= ScoringEngine.CARDS_IN_DECK) {
+                return -1;
+            }
+            handMask |= 1L << ordinal;
+        }
+
+        int last = data[offset + ScoreTable.HAND_SIZE] & 0xFF;
+        int faceUpOrdinal = last & 0x3F;
+        if (faceUpOrdinal >= ScoringEngine.CARDS_IN_DECK || (last & 0x40) != 0) {
+            return -1;
+        }
+        if (Long.bitCount(handMask) != ScoreTable.HAND_SIZE || (handMask & (1L << faceUpOrdinal)) != 0) {
+            return -1;
+        }
+        return handMask;
+    }
+
+    /*
+    Returns the score of a valid four-card hand or crib with the faceUpCard's ordinal.
+     */
+    int score(long handMask, int faceUpOrdinal, boolean isCrib) {
+        if (table == null) {
+            return isCrib ? ScoringEngine.calculateCribPoints(handMask, faceUpOrdinal)
+                    : ScoringEngine.calculatePoints(handMask, faceUpOrdinal);
+        }
+
+        int points = table.lookup(handMask, faceUpOrdinal);
+        if (isCrib) {
+            // the table holds hand scores; swap the hand flush for the crib flush
+            points += ScoringEngine.countCribFlushPoints(handMask, faceUpOrdinal)
+                    - ScoringEngine.countFlushPoints(handMask, faceUpOrdinal);
+        }
+        return points;
+    }
+
+    /*
+    Packs one hand into the request format. Used by callers building a request body, and by tests.
+     */
+    public static void pack(byte[] data, int offset, int[] handOrdinals, int faceUpOrdinal, boolean isCrib) {
+        for (int i = 0; i < ScoreTable.HAND_SIZE; i++) {
+            data[offset + i] = (byte) handOrdinals[i];
+        }
+        data[offset + ScoreTable.HAND_SIZE] = (byte) (faceUpOrdinal | (isCrib ? CRIB_FLAG : 0));
+    }
+
+}
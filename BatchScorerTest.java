@@ -0,0 +1,84 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchScorerTest {
+
+    /*
+    Expected: a four-card Spades flush scores 4 as a hand but nothing as a crib, unless the faceUpCard is a Spade too,
+        which scores 5 either way.
+     */
+    @Test
+    void cribFlush() {
+        long spades = 0L;
+        spades |= 1L << ScoringEngine.ordinal(2, 3);
+        spades |= 1L << ScoringEngine.ordinal(7, 3);
+        spades |= 1L << ScoringEngine.ordinal(9, 3);
+        spades |= 1L << ScoringEngine.ordinal(11, 3);
+        int aceOfHearts = ScoringEngine.ordinal(1, 1);
+        int aceOfSpades = ScoringEngine.ordinal(1, 3);
+
+        assertEquals(4, ScoringEngine.calculatePoints(spades, aceOfHearts));
+        assertEquals(0, ScoringEngine.calculateCribPoints(spades, aceOfHearts));
+        assertEquals(5, ScoringEngine.calculatePoints(spades, aceOfSpades));
+        assertEquals(5, ScoringEngine.calculateCribPoints(spades, aceOfSpades));
+    }
+
+    /*
+    Expected: a batch of random hands and cribs, read in small uneven pieces, returns one byte per hand in order,
+        matching ScoringEngine. Bad records return INVALID and a trailing partial record is ignored.
+     */
+    @Test
+    void scoreStream() throws IOException {
+        Random random = new Random(18);
+        int hands = 10000;
+        byte[] request = new byte[(hands + 2) * BatchScorer.RECORD_BYTES + 3];
+        int[] expected = new int[hands + 2];
+
+        for (int i = 0; i < hands; i++) {
+            long mask = 0L;
+            int[] ordinals = new int[5];
+            for (int j = 0; j < 5; j++) {
+                int ordinal;
+                do {
+                    ordinal = random.nextInt(ScoringEngine.CARDS_IN_DECK);
+                } while ((mask & (1L << ordinal)) != 0);
+                mask |= 1L << ordinal;
+                ordinals[j] = ordinal;
+            }
+            boolean isCrib = random.nextBoolean();
+            long handMask = mask & ~(1L << ordinals[4]);
+            BatchScorer.pack(request, i * BatchScorer.RECORD_BYTES, ordinals, ordinals[4], isCrib);
+            expected[i] = isCrib ? ScoringEngine.calculateCribPoints(handMask, ordinals[4])
+                    : ScoringEngine.calculatePoints(handMask, ordinals[4]);
+        }
+        // a repeated card, and a faceUpCard of 52
+        BatchScorer.pack(request, hands * BatchScorer.RECORD_BYTES, new int[]{1, 1, 2, 3}, 4, false);
+        BatchScorer.pack(request, (hands + 1) * BatchScorer.RECORD_BYTES, new int[]{1, 2, 3, 4}, 52, true);
+        expected[hands] = BatchScorer.INVALID;
+        expected[hands + 1] = BatchScorer.INVALID;
+
+        InputStream in = new ByteArrayInputStream(request) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(hands + 2, BatchScorer.of(null).score(in, out));
+        byte[] scores = out.toByteArray();
+        assertEquals(hands + 2, scores.length);
+        for (int i = 0; i < scores.length; i++) {
+            assertEquals(expected[i], scores[i] & 0xFF, "hand " + i);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.example;
+
+/*
+This class numbers sets of cards, so a set of k cards can be used as an index into a table.
+
+A set of cards is a bitmask of ordinals (see ScoringEngine). Sets of the same size are numbered 0, 1, 2, ... in
+colexicographic order: the rank of the set {c1 < c2 < ... < ck} is C(c1, 1) + C(c2, 2) + ... + C(ck, k).
+
+Example:
+    - rank of {0, 1, 2, 3} (the four Aces) is 0
+    - rank of {48, 49, 50, 51} (the four Kings) is C(52, 4) - 1 = 270724
+
+Responsibilities:
+    - Return binomial coefficients C(n, k) for n <= 52, k <= 6
+    - Return the rank of a set of cards, and the set of cards for a rank
+
+Relies upon: None.
+ */
+
+public final class CardCombinations {
+
+    public static final int MAX_CARDS = 6;
+
+    // BINOMIAL[n][k] = C(n, k)
+    private static final long[][] BINOMIAL = new long[ScoringEngine.CARDS_IN_DECK + 1][MAX_CARDS + 1];
+
+    static {
+        for (int n = 0; n <= ScoringEngine.CARDS_IN_DECK; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= MAX_CARDS && k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private CardCombinations() {
+    }
+
+    /*
+    Returns C(n, k), the number of ways to choose k cards from n. n must be 0-52 and k must be 0-6.
+     */
+    public static long choose(int n, int k) {
+        return BINOMIAL[n][k];
+    }
+
+    /*
+    Returns the rank of a set of up to 6 cards among all sets of the same size.
+     */
+    public static long rank(long cards) {
+        long rank = 0;
+        int k = 0;
+
+        for (long remaining = cards; remaining != 0; remaining &= remaining - 1) {
+            k++;
+            rank += BINOMIAL[Long.numberOfTrailingZeros(remaining)][k];
+        }
+
+        return rank;
+    }
+
+    /*
+    Returns the set of k cards with the given rank. Opposite of rank.
+     */
+    public static long unrank(int k, long rank) {
+        long cards = 0L;
+        int n = ScoringEngine.CARDS_IN_DECK;
+
+        for (int i = k; i >= 1; i--) {
+            n--;
+            while (BINOMIAL[n][i] > rank) {
+                n--;
+            }
+            cards |= 1L << n;
+            rank -= BINOMIAL[n][i];
+        }
+
+        return cards;
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.demo.example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+This class keeps track of where each of the 52 cards is during a round, so finding a card's owner, checking a move,
+and finding all cards in one place take constant time instead of searching through hands.
+
+Data:
+    - byte[] locations: the Location of each card, indexed by ordinal (see ScoringEngine.ordinal)
+    - long[] cardsAt: a bitmask of the cards at each Location
+
+Responsibilities:
+    - Return the Location of a card
+    - Move a card from one Location to another, rejecting the move if the card isn't where it is expected to be
+    - Return the bitmask of the cards at a Location
+    - Rebuild the index from a Game's hands, cribs, played cards and faceUpCard
+
+Relies upon:
+    - Game, Player and Hand, to rebuild the index
+    - ScoringEngine, for ordinals
+ */
+
+public class CardLocations {
+
+    /*
+    Places a card can be during a round. There are 8, so a location fits in 3 bits.
+     */
+    public enum Location {
+        DECK,
+        HAND_A,
+        HAND_B,
+        CRIB_A,
+        CRIB_B,
+        PLAYED_A,
+        PLAYED_B,
+        STARTER
+    }
+
+    private static final Location[] LOCATIONS = Location.values();
+
+    private final byte[] locations;
+    private final long[] cardsAt;
+
+    /*
+    Constructor. Every card starts in the deck.
+     */
+    private CardLocations() {
+        this.locations = new byte[ScoringEngine.CARDS_IN_DECK];
+        this.cardsAt = new long[LOCATIONS.length];
+        reset();
+    }
+
+    /*
+    Factory method. Returns a new CardLocations with every card in the deck.
+     */
+    public static CardLocations of() {
+        return new CardLocations();
+    }
+
+    /*
+    Puts every card back in the deck.
+     */
+    public void reset() {
+        Arrays.fill(locations, (byte) Location.DECK.ordinal());
+        Arrays.fill(cardsAt, 0L);
+        cardsAt[Location.DECK.ordinal()] = ScoringEngine.FULL_DECK_MASK;
+    }
+
+    /*
+    Returns the Location of a Card.
+     */
+    public Location get(Card card) {
+        return get(ScoringEngine.ordinal(card));
+    }
+
+    /*
+    Returns the Location of the card with the given ordinal.
+     */
+    public Location get(int ordinal) {
+        return LOCATIONS[locations[ordinal]];
+    }
+
+    /*
+    Returns the bitmask of the cards at a Location.
+     */
+    public long getCards(Location location) {
+        return cardsAt[location.ordinal()];
+    }
+
+    /*
+    Moves a Card from one Location to another.
+    Throws IllegalArgumentException if the card isn't at from (e.g., it was already played, or belongs to the other
+    player).
+     */
+    public void move(Card card, Location from, Location to) {
+        int ordinal = ScoringEngine.ordinal(card);
+        if (locations[ordinal] != from.ordinal()) {
+            throw new IllegalArgumentException(card + " is not in " + from);
+        }
+        set(ordinal, to);
+    }
+
+    /*
+    Puts the card with the given ordinal at a Location, wherever it was before.
+     */
+    public void set(int ordinal, Location to) {
+        long bit = 1L << ordinal;
+        cardsAt[locations[ordinal]] &= ~bit;
+        cardsAt[to.ordinal()] |= bit;
+        locations[ordinal] = (byte) to.ordinal();
+    }
+
+    /*
+    Rebuilds the index from a Game: hands, cribs, cards each player has played, and the faceUpCard. Every other card is
+    in the deck. Played cards are placed before hands, so cards put back in a hand for SHOW count as in the hand.
+     */
+    public void rebuild(Game game) {
+        reset();
+
+        if (game.getFaceUpCard() != null) {
+            set(ScoringEngine.ordinal(game.getFaceUpCard()), Location.STARTER);
+        }
+        placeAll(game.getPlayerAPlayed(), Location.PLAYED_A);
+        placeAll(game.getPlayerBPlayed(), Location.PLAYED_B);
+        placeAll(game.getPlayerA().getCrib(), Location.CRIB_A);
+        placeAll(game.getPlayerB().getCrib(), Location.CRIB_B);
+        placeAll(game.getPlayerA().getHand(), Location.HAND_A);
+        placeAll(game.getPlayerB().getHand(), Location.HAND_B);
+    }
+
+    // places every card of a Hand (which may be null) at a Location
+    private void placeAll(Hand hand, Location location) {
+        if (hand != null) {
+            placeAll(hand.getCards(), location);
+        }
+    }
+
+    // places every card of a list (which may be null) at a Location
+    private void placeAll(List<Card> cards, Location location) {
+        if (cards == null) {
+            return;
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            set(ScoringEngine.ordinal(cards.get(i)), location);
+        }
+    }
+
+}
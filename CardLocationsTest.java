@@ -0,0 +1,73 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardLocationsTest {
+
+    /*
+    Expected: every card starts in the deck.
+     */
+    @Test
+    void startsInDeck() {
+        CardLocations locations = CardLocations.of();
+
+        for (int ordinal = 0; ordinal < ScoringEngine.CARDS_IN_DECK; ordinal++) {
+            assertEquals(CardLocations.Location.DECK, locations.get(ordinal));
+        }
+        assertEquals(ScoringEngine.FULL_DECK_MASK, locations.getCards(CardLocations.Location.DECK));
+    }
+
+    /*
+    Expected:
+        - a card can be moved from where it is
+        - moving a card from somewhere it isn't throws IllegalArgumentException and changes nothing
+        - the bitmasks follow the moves
+     */
+    @Test
+    void move() {
+        CardLocations locations = CardLocations.of();
+        Card fiveHearts = Card.of(5, 1);
+        long bit = 1L << ScoringEngine.ordinal(fiveHearts);
+
+        locations.move(fiveHearts, CardLocations.Location.DECK, CardLocations.Location.HAND_A);
+        assertEquals(CardLocations.Location.HAND_A, locations.get(fiveHearts));
+        assertEquals(bit, locations.getCards(CardLocations.Location.HAND_A));
+        assertEquals(0L, locations.getCards(CardLocations.Location.DECK) & bit);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> locations.move(fiveHearts, CardLocations.Location.HAND_B, CardLocations.Location.PLAYED_B));
+        assertEquals(CardLocations.Location.HAND_A, locations.get(fiveHearts));
+
+        locations.move(fiveHearts, CardLocations.Location.HAND_A, CardLocations.Location.PLAYED_A);
+        assertEquals(0L, locations.getCards(CardLocations.Location.HAND_A));
+        assertEquals(bit, locations.getCards(CardLocations.Location.PLAYED_A));
+    }
+
+    /*
+    Expected: after a deal, rebuild places each player's cards in their hand, the faceUpCard as the STARTER,
+        and the remaining 39 cards in the deck.
+     */
+    @Test
+    void rebuildAfterDeal() {
+        Game game = Game.of();
+        game.setUpDeal();
+        for (int i = 0; i < 6; i++) {
+            game.dealCard(game.getPlayerA());
+            game.dealCard(game.getPlayerB());
+        }
+
+        CardLocations locations = CardLocations.of();
+        locations.rebuild(game);
+
+        for (Card card : game.getPlayerA().getHand().getCards()) {
+            assertEquals(CardLocations.Location.HAND_A, locations.get(card));
+        }
+        for (Card card : game.getPlayerB().getHand().getCards()) {
+            assertEquals(CardLocations.Location.HAND_B, locations.get(card));
+        }
+        assertEquals(CardLocations.Location.STARTER, locations.get(game.getFaceUpCard()));
+        assertEquals(39, Long.bitCount(locations.getCards(CardLocations.Location.DECK)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.example;
+
+/*
+This class holds one shared Card object for each of the 52 cards in a standard deck.
+
+Data: Card[] cards, indexed by ordinal (see ScoringEngine.ordinal)
+
+Responsibilities:
+    - Create all 52 Cards once, when the class is loaded
+    - Return the shared Card for a value and suit, instead of creating a new Card
+        - Same mapping and checks as Card.of (value 1-13, suit CLUBS = 0, HEARTS = 1, DIAMONDS = 2, SPADES = 3)
+    - Return the shared Card for an ordinal, and the ordinal of any Card
+
+Because every caller gets the same object for the same card, cards from the registry can be compared with ==, and the
+ordinal can be used to index straight into arrays (e.g., a 52-entry table keyed by card).
+
+Relies upon:
+    - Card, to create the Card objects
+    - ScoringEngine, for the ordinal encoding
+ */
+
+public final class CardRegistry {
+
+    private static final Card[] CARDS = new Card[ScoringEngine.CARDS_IN_DECK];
+
+    static {
+        for (int ordinal = 0; ordinal < CARDS.length; ordinal++) {
+            CARDS[ordinal] = Card.of(ScoringEngine.valueOf(ordinal), ScoringEngine.suitOf(ordinal));
+        }
+    }
+
+    private CardRegistry() {
+    }
+
+    /*
+    Returns the shared Card with the given value and suit.
+
+    Examples:
+        - of(3, 1) returns the 3 of Hearts
+        - of(3, 1) == of(3, 1) is true
+     */
+    public static Card of(int value, int suit) {
+        if (suit < 0 || suit > 3) {
+            throw new IllegalArgumentException("Not a valid suit");
+        }
+        else if (value < 1 || value > 13) {
+            throw new IllegalArgumentException("Not a valid value");
+        }
+
+        return CARDS[ScoringEngine.ordinal(value, suit)];
+    }
+
+    /*
+    Returns the shared Card for an ordinal between 0 and 51.
+     */
+    public static Card fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= CARDS.length) {
+            throw new IllegalArgumentException("Not a valid ordinal");
+        }
+        return CARDS[ordinal];
+    }
+
+    /*
+    Returns the shared Card equal to the given Card. Used to swap a Card made with Card.of for the shared one.
+     */
+    public static Card canonical(Card card) {
+        return CARDS[ScoringEngine.ordinal(card)];
+    }
+
+    // returns the ordinal (0-51) of a Card
+    public static int ordinal(Card card) {
+        return ScoringEngine.ordinal(card);
+    }
+
+}
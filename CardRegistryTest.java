@@ -0,0 +1,46 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardRegistryTest {
+
+    /*
+    Expected: the registry returns the same object every time for the same card,
+        and that card is equal to one made with Card.of.
+     */
+    @Test
+    void of() {
+        Card threeOfHearts = CardRegistry.of(3, 1);
+
+        assertSame(threeOfHearts, CardRegistry.of(3, 1));
+        assertEquals(Card.of(3, 1), threeOfHearts);
+        assertSame(threeOfHearts, CardRegistry.canonical(Card.of(3, 1)));
+    }
+
+    /*
+    Expected: every ordinal from 0 to 51 maps to a different card, and back to the same ordinal.
+     */
+    @Test
+    void ordinals() {
+        for (int ordinal = 0; ordinal < 52; ordinal++) {
+            Card card = CardRegistry.fromOrdinal(ordinal);
+            assertEquals(ordinal, CardRegistry.ordinal(card));
+        }
+
+        assertSame(CardRegistry.of(1, 0), CardRegistry.fromOrdinal(0));
+        assertSame(CardRegistry.of(13, 3), CardRegistry.fromOrdinal(51));
+    }
+
+    /*
+    Expected: the same checks as Card.of. Invalid values, suits and ordinals throw IllegalArgumentException.
+     */
+    @Test
+    void invalidCards() {
+        assertThrows(IllegalArgumentException.class, () -> CardRegistry.of(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> CardRegistry.of(14, 1));
+        assertThrows(IllegalArgumentException.class, () -> CardRegistry.of(5, 4));
+        assertThrows(IllegalArgumentException.class, () -> CardRegistry.fromOrdinal(52));
+    }
+}
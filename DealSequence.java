@@ -0,0 +1,106 @@
+package com.demo.example;
+
+import java.util.SplittableRandom;
+
+/*
+This class represents a reproducible sequence of deals: who deals first, and the order of the deck in every round.
+
+Data:
+    - long seed: the seed the sequence was created from
+    - SplittableRandom random: shuffles the deck for each round. Only used by one game (one thread) at a time.
+    - boolean seatsSwapped: true for the mirrored twin of a sequence (duplicate mode)
+    - boolean firstDealerA: true if Player A deals the first round
+
+Deals are laid out the same way GameController deals a round: the faceUpCard is drawn first, then cards go to
+Player A and Player B in turn (A, B, A, B, ...).
+
+Duplicate mode:
+    - mirrored() returns a twin sequence with the same seed and the seats swapped: the other player deals first, and in
+        every round Player A gets the cards Player B got in the original (and vice versa). The faceUpCard and the rest
+        of the deck are the same.
+    - Playing a sequence and its mirror with the same two strategies cancels out the luck of the deal, so far fewer
+        games are needed to compare two strategies.
+
+Responsibilities:
+    - Create a sequence from a seed, its mirrored twin, and independent child sequences (one per game or thread)
+    - Choose the first dealer
+    - Refill and shuffle a ShuffledDeck with the next deal
+
+Relies upon:
+    - ShuffledDeck, to hold and deal the cards
+ */
+
+public class DealSequence {
+
+    // cards dealt to each player per round, after the faceUpCard
+    public static final int CARDS_PER_HAND = 6;
+
+    private final long seed;
+    private final SplittableRandom random;
+    private final boolean seatsSwapped;
+    private final boolean firstDealerA;
+
+    /*
+    Constructor. The first dealer is chosen from the seed, so a sequence and its mirror agree on it before flipping.
+     */
+    private DealSequence(long seed, boolean seatsSwapped) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.seatsSwapped = seatsSwapped;
+        this.firstDealerA = random.nextBoolean() != seatsSwapped;
+    }
+
+    /*
+    Factory method. Returns the sequence of deals for a seed.
+     */
+    public static DealSequence of(long seed) {
+        return new DealSequence(seed, false);
+    }
+
+    /*
+    Returns the twin of this sequence with the seats swapped (duplicate mode). Must be called before any deals.
+     */
+    public DealSequence mirrored() {
+        return new DealSequence(seed, !seatsSwapped);
+    }
+
+    /*
+    Returns a new, independent sequence seeded from this one. Used to give each game (or worker thread) its own
+    random stream, so games don't share random state.
+     */
+    public DealSequence split() {
+        return new DealSequence(random.nextLong(), false);
+    }
+
+    // returns the seed this sequence was created from
+    public long getSeed() {
+        return this.seed;
+    }
+
+    // returns true if this is the mirrored twin of a sequence
+    public boolean isSeatsSwapped() {
+        return this.seatsSwapped;
+    }
+
+    // returns true if Player A deals the first round
+    public boolean isFirstDealerA() {
+        return this.firstDealerA;
+    }
+
+    /*
+    Refills and shuffles the deck with the next deal of the sequence.
+
+    If the seats are swapped, each pair of cards dealt to (A, B) is swapped to (B, A).
+     */
+    public void nextDeal(ShuffledDeck deck) {
+        deck.refill();
+        deck.shuffle(random);
+
+        if (seatsSwapped) {
+            for (int i = 1; i < 2 * CARDS_PER_HAND; i += 2) {
+                deck.swap(i, i + 1);
+            }
+        }
+    }
+
+}
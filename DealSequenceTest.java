@@ -0,0 +1,79 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DealSequenceTest {
+
+    /*
+    Expected: two sequences with the same seed deal the same cards in the same order, round after round,
+        and choose the same first dealer.
+     */
+    @Test
+    void sameSeedSameDeals() {
+        DealSequence first = DealSequence.of(42L);
+        DealSequence second = DealSequence.of(42L);
+        ShuffledDeck firstDeck = ShuffledDeck.of();
+        ShuffledDeck secondDeck = ShuffledDeck.of();
+
+        assertEquals(first.isFirstDealerA(), second.isFirstDealerA());
+
+        for (int round = 0; round < 5; round++) {
+            first.nextDeal(firstDeck);
+            second.nextDeal(secondDeck);
+            assertEquals(firstDeck.getAllCards(), secondDeck.getAllCards());
+        }
+    }
+
+    /*
+    Expected: the mirrored sequence deals the same faceUpCard and the same hands, but Player A gets
+        what Player B got and vice versa. The first dealer is the other player.
+     */
+    @Test
+    void mirroredSwapsSeats() {
+        DealSequence original = DealSequence.of(7L);
+        DealSequence mirror = original.mirrored();
+        ShuffledDeck originalDeck = ShuffledDeck.of();
+        ShuffledDeck mirrorDeck = ShuffledDeck.of();
+
+        assertNotEquals(original.isFirstDealerA(), mirror.isFirstDealerA());
+
+        for (int round = 0; round < 3; round++) {
+            original.nextDeal(originalDeck);
+            mirror.nextDeal(mirrorDeck);
+
+            assertEquals(originalDeck.draw(), mirrorDeck.draw()); // faceUpCard
+
+            ArrayList<Card> originalA = new ArrayList<>();
+            ArrayList<Card> originalB = new ArrayList<>();
+            ArrayList<Card> mirrorA = new ArrayList<>();
+            ArrayList<Card> mirrorB = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                originalA.add(originalDeck.draw());
+                originalB.add(originalDeck.draw());
+                mirrorA.add(mirrorDeck.draw());
+                mirrorB.add(mirrorDeck.draw());
+            }
+
+            assertEquals(originalA, mirrorB);
+            assertEquals(originalB, mirrorA);
+            assertEquals(originalDeck.getAllCards(), mirrorDeck.getAllCards());
+        }
+    }
+
+    /*
+    Expected: split sequences are reproducible from the parent seed, and differ from each other.
+     */
+    @Test
+    void split() {
+        DealSequence childOne = DealSequence.of(1L).split();
+        DealSequence childTwo = DealSequence.of(1L).split();
+        assertEquals(childOne.getSeed(), childTwo.getSeed());
+
+        DealSequence parent = DealSequence.of(1L);
+        assertNotEquals(parent.split().getSeed(), parent.split().getSeed());
+    }
+}
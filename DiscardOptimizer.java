@@ -0,0 +1,370 @@
+package com.demo.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+This class evaluates the DEAL stage choice of which two of six cards to put in the crib.
+
+For a six-card hand there are 15 ways to keep four cards and discard two. For each one:
+    - expected hand points: the average SHOW score of the four kept cards over all 46 possible faceUpCards
+    - expected crib points: the average crib score (ScoringEngine.calculateCribPoints) of the two discarded cards with
+        every possible pair of opponent's discards and faceUpCard, all drawn from the 46 cards not dealt to the player
+    - net points: hand + crib for the dealer (the crib is theirs), hand - crib for the pone (the crib is the opponent's)
+
+The crib average is exact, without scoring all 1035 * 44 cribs. A crib's score doesn't depend on which of its five
+cards is the faceUpCard (a crib flush needs all five), so the average is over the C(46, 3) sets of the three other
+cards. Apart from a flush, a crib only scores by its values, so:
+    - CRIB_RANK_POINTS holds the score of every pair of discarded values with every multiset of three values (455 of
+        them, in TRIPLES), built once when the class is loaded
+    - each multiset counts once for every way to draw it from the unseen cards: the product of C(unseen cards of the
+        value, copies of the value), with up to 4 - (dealt cards of the value) unseen per value
+    - if both discards share a suit, each of the C(unseen cards of that suit, 3) sets of that suit adds a 5-point flush
+
+The 15 options are split across cores with the common fork-join pool.
+
+Responsibilities:
+    - Return all 15 options for a six-card hand, best first
+    - Return the best option
+
+Relies upon:
+    - ScoringEngine to score hands and cribs
+    - CardRegistry to turn ordinals back into Cards
+ */
+
+public final class DiscardOptimizer {
+
+    public static final int DEALT_CARDS = 6;
+    public static final int KEPT_CARDS = 4;
+    public static final int OPTIONS = 15;
+
+    // cards not dealt to the player that can be in the crib or be the faceUpCard
+    private static final int UNSEEN_CARDS = ScoringEngine.CARDS_IN_DECK - DEALT_CARDS;
+
+    // the other three cards of a crib and its faceUpCard: opponent's two discards and the faceUpCard
+    private static final int OTHER_CRIB_CARDS = 3;
+
+    private static final int VALUES = 13;
+    private static final int SUITS = 4;
+    private static final int FLUSH_POINTS = 5;
+
+    // every multiset of three values, as {value1, value2, value3} with value1 <= value2 <= value3
+    private static final int[][] TRIPLES = triples();
+
+    // CRIB_RANK_POINTS[value1 - 1][value2 - 1][triple]: crib score of the two discarded values and TRIPLES[triple],
+    // without flushes
+    private static final byte[][][] CRIB_RANK_POINTS = cribRankPoints();
+
+    private DiscardOptimizer() {
+    }
+
+    /*
+    This class represents one option: which four cards to keep and which two to discard, and its expected points.
+     */
+    public static final class Choice {
+        private final long kept;
+        private final long discarded;
+        private final double expectedHandPoints;
+        private final double expectedCribPoints;
+        private final double net;
+
+        private Choice(long kept, long discarded, double expectedHandPoints, double expectedCribPoints, boolean dealer) {
+            this.kept = kept;
+            this.discarded = discarded;
+            this.expectedHandPoints = expectedHandPoints;
+            this.expectedCribPoints = expectedCribPoints;
+            this.net = dealer ? expectedHandPoints + expectedCribPoints : expectedHandPoints - expectedCribPoints;
+        }
+
+        // returns the bitmask of the four kept cards
+        public long getKeptMask() {
+            return this.kept;
+        }
+
+        // returns the bitmask of the two discarded cards
+        public long getDiscardedMask() {
+            return this.discarded;
+        }
+
+        // returns the four kept cards
+        public ArrayList<Card> getKept() {
+            return toCards(kept);
+        }
+
+        // returns the two discarded cards
+        public ArrayList<Card> getDiscarded() {
+            return toCards(discarded);
+        }
+
+        public double getExpectedHandPoints() {
+            return this.expectedHandPoints;
+        }
+
+        public double getExpectedCribPoints() {
+            return this.expectedCribPoints;
+        }
+
+        // returns the expected points for the player choosing: hand + crib for the dealer, hand - crib for the pone
+        public double getNet() {
+            return this.net;
+        }
+
+        @Override
+        public String toString() {
+            return "keep " + getKept() + ", discard " + getDiscarded() + String.format(" (hand %.2f, crib %.2f, net %.2f)",
+                    expectedHandPoints, expectedCribPoints, net);
+        }
+    }
+
+    /*
+    Returns all 15 options for a six-card Hand, best net first.
+    dealer: true if the player choosing is the dealer (the crib will be theirs).
+     */
+    public static ArrayList<Choice> evaluate(Hand hand, boolean dealer) {
+        return evaluate(ScoringEngine.handMask(hand.getCards()), dealer);
+    }
+
+    /*
+    Returns all 15 options for a six-card bitmask, best net first.
+     */
+    public static ArrayList<Choice> evaluate(long dealt, boolean dealer) {
+        if (Long.bitCount(dealt) != DEALT_CARDS) {
+            throw new IllegalArgumentException("Need six different cards to choose a discard");
+        }
+
+        long[] discards = new long[OPTIONS];
+        for (int option = 0; option < OPTIONS; option++) {
+            discards[option] = discardOption(dealt, option);
+        }
+
+        Choice[] choices = new Choice[discards.length];
+        ForkJoinPool.commonPool().invoke(new EvaluateTask(dealt, dealer, discards, choices, 0, discards.length));
+
+        ArrayList<Choice> sorted = new ArrayList<>(choices.length);
+        for (Choice choice : choices) {
+            sorted.add(choice);
+        }
+        sorted.sort(Comparator.comparingDouble(Choice::getNet).reversed());
+        return sorted;
+    }
+
+    /*
+    Returns the option with the best net points for a six-card Hand.
+     */
+    public static Choice bestDiscard(Hand hand, boolean dealer) {
+        return evaluate(hand, dealer).get(0);
+    }
+
+    /*
+    Returns the option with the best net points for a six-card bitmask.
+     */
+    public static Choice bestDiscard(long dealt, boolean dealer) {
+        return evaluate(dealt, dealer).get(0);
+    }
+
+    /*
+    Returns the two cards discarded by option number index (0-14) of a six-card bitmask.
+
+    Options are numbered by the positions of the two discarded cards, counting the six cards from the lowest ordinal:
+    option 0 discards cards (0, 1), option 1 discards (0, 2), ... option 14 discards (4, 5).
+     */
+    public static long discardOption(long dealt, int index) {
+        int option = 0;
+        for (long first = dealt; first != 0; first &= first - 1) {
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                if (option++ == index) {
+                    return Long.lowestOneBit(first) | Long.lowestOneBit(second);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Not a valid option");
+    }
+
+    /*
+    Returns the option number (0-14) that discards the two cards in discarded from a six-card bitmask.
+     */
+    public static int optionIndex(long dealt, long discarded) {
+        for (int option = 0; option < OPTIONS; option++) {
+            if (discardOption(dealt, option) == discarded) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException("Not a discard from this hand");
+    }
+
+    /*
+    Evaluates options [from, to) of discards, splitting in half until a few options are left per task.
+     */
+    private static final class EvaluateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int OPTIONS_PER_TASK = 4;
+
+        private final long dealt;
+        private final boolean dealer;
+        private final long[] discards;
+        private final transient Choice[] choices;
+        private final int from;
+        private final int to;
+
+        private EvaluateTask(long dealt, boolean dealer, long[] discards, Choice[] choices, int from, int to) {
+            this.dealt = dealt;
+            this.dealer = dealer;
+            this.discards = discards;
+            this.choices = choices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= OPTIONS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    choices[i] = evaluateOption(dealt, discards[i], dealer);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(dealt, dealer, discards, choices, from, middle),
+                    new EvaluateTask(dealt, dealer, discards, choices, middle, to));
+        }
+    }
+
+    /*
+    Returns the Choice for discarding the two cards in discarded from the six cards in dealt.
+     */
+    static Choice evaluateOption(long dealt, long discarded, boolean dealer) {
+        long kept = dealt & ~discarded;
+
+        int totalPoints = 0;
+        int faceUpCards = 0;
+        for (long faceUps = ScoringEngine.FULL_DECK_MASK & ~dealt; faceUps != 0; faceUps &= faceUps - 1) {
+            totalPoints += ScoringEngine.calculatePoints(kept, Long.numberOfTrailingZeros(faceUps));
+            faceUpCards++;
+        }
+
+        return new Choice(kept, discarded, (double) totalPoints / faceUpCards, expectedCribPoints(dealt, discarded),
+                dealer);
+    }
+
+    /*
+    Returns the expected score of a crib holding the two cards in discarded, out of the six cards in dealt, over every
+    opponent's discard and faceUpCard from the other 46 cards.
+     */
+    public static double expectedCribPoints(long dealt, long discarded) {
+        int first = Long.numberOfTrailingZeros(discarded);
+        int second = 63 - Long.numberOfLeadingZeros(discarded);
+        byte[] rankPoints = CRIB_RANK_POINTS[ScoringEngine.valueOf(first) - 1][ScoringEngine.valueOf(second) - 1];
+
+        // triples in the same order as TRIPLES, each weighted by the number of ways to draw it
+        long total = 0;
+        int triple = 0;
+        for (int value1 = 1; value1 <= VALUES; value1++) {
+            int unseen1 = SUITS - ScoringEngine.countOfValue(dealt, value1);
+            for (int value2 = value1; value2 <= VALUES; value2++) {
+                int unseen2 = SUITS - ScoringEngine.countOfValue(dealt, value2);
+                for (int value3 = value2; value3 <= VALUES; value3++) {
+                    int unseen3 = SUITS - ScoringEngine.countOfValue(dealt, value3);
+                    long ways;
+                    if (value1 == value3) {
+                        ways = CardCombinations.choose(unseen1, 3);
+                    } else if (value1 == value2) {
+                        ways = CardCombinations.choose(unseen1, 2) * unseen3;
+                    } else if (value2 == value3) {
+                        ways = unseen1 * CardCombinations.choose(unseen2, 2);
+                    } else {
+                        ways = unseen1 * unseen2 * unseen3;
+                    }
+                    total += ways * rankPoints[triple++];
+                }
+            }
+        }
+
+        int suit = ScoringEngine.suitOf(first);
+        if (suit == ScoringEngine.suitOf(second)) {
+            int unseenOfSuit = VALUES;
+            for (long remaining = dealt; remaining != 0; remaining &= remaining - 1) {
+                if (ScoringEngine.suitOf(Long.numberOfTrailingZeros(remaining)) == suit) {
+                    unseenOfSuit--;
+                }
+            }
+            total += FLUSH_POINTS * CardCombinations.choose(unseenOfSuit, OTHER_CRIB_CARDS);
+        }
+
+        return (double) total / CardCombinations.choose(UNSEEN_CARDS, OTHER_CRIB_CARDS);
+    }
+
+    // lists every multiset of three values
+    private static int[][] triples() {
+        int[][] triples = new int[(int) CardCombinations.choose(VALUES + 2, OTHER_CRIB_CARDS)][];
+        int triple = 0;
+        for (int value1 = 1; value1 <= VALUES; value1++) {
+            for (int value2 = value1; value2 <= VALUES; value2++) {
+                for (int value3 = value2; value3 <= VALUES; value3++) {
+                    triples[triple++] = new int[]{value1, value2, value3};
+                }
+            }
+        }
+        return triples;
+    }
+
+    /*
+    Builds CRIB_RANK_POINTS by scoring one crib for every pair of discarded values and triple, with the k-th card of a
+    value in suit k, and taking off any flush. Five cards of one value can't be drawn, so those entries are left at 0.
+     */
+    private static byte[][][] cribRankPoints() {
+        byte[][][] cribRankPoints = new byte[VALUES][VALUES][TRIPLES.length];
+        int[] values = new int[KEPT_CARDS + 1];
+        int[] copies = new int[VALUES + 1];
+
+        for (int value1 = 1; value1 <= VALUES; value1++) {
+            for (int value2 = value1; value2 <= VALUES; value2++) {
+                for (int triple = 0; triple < TRIPLES.length; triple++) {
+                    values[0] = value1;
+                    values[1] = value2;
+                    System.arraycopy(TRIPLES[triple], 0, values, 2, OTHER_CRIB_CARDS);
+
+                    Arrays.fill(copies, 0);
+                    long crib = 0L;
+                    int faceUp = -1;
+                    boolean drawable = true;
+                    for (int card = 0; card < values.length; card++) {
+                        int suit = copies[values[card]]++;
+                        if (suit == SUITS) {
+                            drawable = false;
+                            break;
+                        }
+                        if (card < KEPT_CARDS) {
+                            crib |= 1L << ScoringEngine.ordinal(values[card], suit);
+                        } else {
+                            faceUp = ScoringEngine.ordinal(values[card], suit);
+                        }
+                    }
+                    if (!drawable) {
+                        continue;
+                    }
+
+                    byte points = (byte) (ScoringEngine.calculateCribPoints(crib, faceUp)
+                            - ScoringEngine.countCribFlushPoints(crib, faceUp));
+                    cribRankPoints[value1 - 1][value2 - 1][triple] = points;
+                    cribRankPoints[value2 - 1][value1 - 1][triple] = points;
+                }
+            }
+        }
+
+        return cribRankPoints;
+    }
+
+    // returns the Cards in a bitmask, lowest ordinal first
+    private static ArrayList<Card> toCards(long cards) {
+        ArrayList<Card> output = new ArrayList<>();
+        for (long remaining = cards; remaining != 0; remaining &= remaining - 1) {
+            output.add(CardRegistry.fromOrdinal(Long.numberOfTrailingZeros(remaining)));
+        }
+        return output;
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscardOptimizerTest {
+
+    /*
+    Expected:
+        - There are 15 options, each keeping four cards and discarding two of the six dealt.
+        - Options are sorted by net points, best first.
+        - The expected hand points match an average of Hand.calculatePoints over the 46 faceUpCards.
+     */
+    @Test
+    void evaluate() {
+        ArrayList<Card> dealt = new ArrayList<>();
+        dealt.add(Card.of(5, 0));
+        dealt.add(Card.of(5, 1));
+        dealt.add(Card.of(10, 2));
+        dealt.add(Card.of(11, 3));
+        dealt.add(Card.of(2, 0));
+        dealt.add(Card.of(9, 1));
+        Hand hand = Hand.of(dealt);
+
+        ArrayList<DiscardOptimizer.Choice> choices = DiscardOptimizer.evaluate(hand, true);
+        assertEquals(15, choices.size());
+
+        for (int i = 0; i < choices.size(); i++) {
+            DiscardOptimizer.Choice choice = choices.get(i);
+            assertEquals(4, choice.getKept().size());
+            assertEquals(2, choice.getDiscarded().size());
+            assertTrue(dealt.containsAll(choice.getKept()));
+            assertTrue(dealt.containsAll(choice.getDiscarded()));
+            if (i > 0) {
+                assertTrue(choices.get(i - 1).getNet() >= choice.getNet());
+            }
+        }
+
+        DiscardOptimizer.Choice best = choices.get(0);
+        int total = 0;
+        Deck deck = Deck.of();
+        for (Card faceUp : deck.getAllCards()) {
+            if (!dealt.contains(faceUp)) {
+                total += Hand.of(best.getKept()).calculatePoints(faceUp);
+            }
+        }
+        assertEquals(total / 46.0, best.getExpectedHandPoints(), 1e-9);
+
+        // keeping both fives with the ten and jack is the strongest hand here
+        assertTrue(best.getKept().contains(Card.of(5, 0)));
+        assertTrue(best.getKept().contains(Card.of(5, 1)));
+    }
+
+    /*
+    Expected: the dealer adds the crib to the hand, the pone subtracts it.
+     */
+    @Test
+    void dealerAndPone() {
+        ArrayList<Card> dealt = new ArrayList<>();
+        dealt.add(Card.of(1, 0));
+        dealt.add(Card.of(3, 1));
+        dealt.add(Card.of(6, 2));
+        dealt.add(Card.of(8, 3));
+        dealt.add(Card.of(12, 0));
+        dealt.add(Card.of(13, 1));
+
+        DiscardOptimizer.Choice dealer = DiscardOptimizer.bestDiscard(Hand.of(dealt), true);
+        DiscardOptimizer.Choice pone = DiscardOptimizer.bestDiscard(Hand.of(dealt), false);
+
+        assertEquals(dealer.getExpectedHandPoints() + dealer.getExpectedCribPoints(), dealer.getNet(), 1e-9);
+        assertEquals(pone.getExpectedHandPoints() - pone.getExpectedCribPoints(), pone.getNet(), 1e-9);
+        assertTrue(dealer.getExpectedCribPoints() > 0);
+
+        ArrayList<Card> fiveCards = new ArrayList<>(dealt.subList(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> DiscardOptimizer.evaluate(Hand.of(fiveCards), true));
+    }
+
+    /*
+    Expected: the expected crib points are exactly the average crib score (crib flush rules) over every opponent's
+        discard and faceUpCard drawn from the 46 cards not dealt, for suited and unsuited discards, pairs, and a
+        four-card flush that only scores with a faceUpCard of its suit.
+     */
+    @Test
+    void expectedCribPointsAreExact() {
+        Random random = new Random(8);
+        ArrayList<long[]> deals = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            long dealt = 0L;
+            while (Long.bitCount(dealt) < DiscardOptimizer.DEALT_CARDS) {
+                dealt |= 1L << random.nextInt(ScoringEngine.CARDS_IN_DECK);
+            }
+            deals.add(new long[]{dealt, DiscardOptimizer.discardOption(dealt, random.nextInt(DiscardOptimizer.OPTIONS))});
+        }
+        long hearts = 0L;
+        for (int value : new int[]{1, 4, 5, 6, 10, 11}) {
+            hearts |= 1L << ScoringEngine.ordinal(value, 1);
+        }
+        deals.add(new long[]{hearts, (1L << ScoringEngine.ordinal(5, 1)) | (1L << ScoringEngine.ordinal(11, 1))});
+        long fives = (1L << ScoringEngine.ordinal(5, 0)) | (1L << ScoringEngine.ordinal(5, 1));
+        deals.add(new long[]{fives | (1L << ScoringEngine.ordinal(5, 2)) | (1L << ScoringEngine.ordinal(2, 3))
+                | (1L << ScoringEngine.ordinal(7, 3)) | (1L << ScoringEngine.ordinal(13, 0)), fives});
+
+        for (long[] deal : deals) {
+            long dealt = deal[0];
+            long discarded = deal[1];
+            long unseen = ScoringEngine.FULL_DECK_MASK & ~dealt;
+
+            long total = 0;
+            int cribs = 0;
+            for (long first = unseen; first != 0; first &= first - 1) {
+                for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                    long crib = discarded | Long.lowestOneBit(first) | Long.lowestOneBit(second);
+                    for (long faceUps = unseen & ~crib; faceUps != 0; faceUps &= faceUps - 1) {
+                        total += ScoringEngine.calculateCribPoints(crib, Long.numberOfTrailingZeros(faceUps));
+                        cribs++;
+                    }
+                }
+            }
+
+            assertEquals(1035 * 44, cribs);
+            assertEquals((double) total / cribs, DiscardOptimizer.expectedCribPoints(dealt, discarded), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/*
+This class holds the best discard for every possible six-card deal, for both the dealer and the pone, read from a
+precomputed file.
+
+There are C(52, 6) = 20358520 six-card deals. Each takes one byte: the dealer's best option number (0-14, see
+DiscardOptimizer.discardOption) in the high 4 bits and the pone's in the low 4 bits, so both answers for a deal fit in
+a single read. Options are chosen with DiscardOptimizer's expected net points (hand points over all 46 faceUpCards,
+plus or minus the expected crib).
+
+File layout:
+    - 8 bytes: MAGIC
+    - 8 bytes: number of entries
+    - one byte per deal, at the rank of the deal (see CardCombinations)
+
+Generation (run main with the output path):
+    - Deals that only differ by swapping suits around have the same best discard (with the suits swapped the same
+        way), so only one deal of each group is evaluated: the one with the smallest bitmask (its canonical form).
+    - Pass 1 evaluates every canonical deal. Pass 2 fills in every other deal from its canonical deal.
+    - The deals are split into chunks that run in parallel on all cores. A checkpoint file next to the output records
+        finished chunks, so a stopped run picks up where it left off. It is deleted when the table is complete.
+
+Responsibilities:
+    - Generate the file, resuming from a checkpoint
+    - Open and map the file, and check its header
+    - Return the best discard for a six-card Hand as dealer or pone
+
+Relies upon:
+    - DiscardOptimizer to evaluate the options of a deal
+    - CardCombinations to number the deals
+    - ScoringEngine for bitmasks
+ */
+
+public class DiscardTable {
+
+    public static final long MAGIC = 0x4352494244495343L; // "CRIBDISC"
+    public static final int HAND_SIZE = DiscardOptimizer.DEALT_CARDS;
+    public static final long ENTRIES = CardCombinations.choose(ScoringEngine.CARDS_IN_DECK, HAND_SIZE);
+
+    private static final int HEADER_BYTES = 16;
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS = (int) ((ENTRIES + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+    // bit 0 of every value's 4-bit group, i.e. every Club
+    private static final long CLUBS_MASK = 0x1111111111111L;
+
+    // all 24 ways to reassign the four suits, and the reassignment that undoes each one
+    private static final int[][] SUIT_PERMUTATIONS = new int[24][];
+    private static final int[][] INVERSE_PERMUTATIONS = new int[24][];
+
+    static {
+        int next = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d >= 0 && d < 4 && d != a && d != b && d != c) {
+                        SUIT_PERMUTATIONS[next] = new int[]{a, b, c, d};
+                        INVERSE_PERMUTATIONS[next] = new int[4];
+                        for (int suit = 0; suit < 4; suit++) {
+                            INVERSE_PERMUTATIONS[next][SUIT_PERMUTATIONS[next][suit]] = suit;
+                        }
+                        next++;
+                    }
+                }
+            }
+        }
+    }
+
+    private final MappedByteBuffer table;
+
+    /*
+    Constructor. table must be a mapped table file with a valid header.
+     */
+    private DiscardTable(MappedByteBuffer table) {
+        this.table = table;
+    }
+
+    /*
+    Factory method. Maps the table file at path and returns the DiscardTable.
+    Throws IOException if the file can't be read, IllegalStateException if it isn't a finished discard table.
+     */
+    public static DiscardTable of(Path path) throws IOException {
+        if (Files.exists(checkpointPath(path))) {
+            throw new IllegalStateException("Discard table is not finished: " + path);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + ENTRIES) {
+                throw new IllegalStateException("Not a discard table: " + path);
+            }
+
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (table.getLong(0) != MAGIC || table.getLong(8) != ENTRIES) {
+                throw new IllegalStateException("Not a discard table: " + path);
+            }
+            return new DiscardTable(table);
+        }
+    }
+
+    /*
+    Returns the two Cards to discard from a six-card Hand.
+    dealer: true if the player choosing is the dealer.
+     */
+    public ArrayList<Card> bestDiscard(Hand hand, boolean dealer) {
+        long discarded = bestDiscardMask(ScoringEngine.handMask(hand.getCards()), dealer);
+
+        ArrayList<Card> output = new ArrayList<>();
+        for (Card card : hand.getCards()) {
+            if ((discarded & (1L << ScoringEngine.ordinal(card))) != 0) {
+                output.add(card);
+            }
+        }
+        return output;
+    }
+
+    /*
+    Returns the bitmask of the two cards to discard from a six-card bitmask.
+     */
+    public long bestDiscardMask(long dealt, boolean dealer) {
+        if (Long.bitCount(dealt) != HAND_SIZE) {
+            throw new IllegalArgumentException("Need six different cards to choose a discard");
+        }
+
+        int entry = table.get((int) (HEADER_BYTES + CardCombinations.rank(dealt)));
+        return DiscardOptimizer.discardOption(dealt, dealer ? (entry >>> 4) & 0xF : entry & 0xF);
+    }
+
+    /*
+    Returns the table entry for a deal: the dealer's best option in the high 4 bits, the pone's in the low 4 bits.
+     */
+    static byte bestOptions(long dealt) {
+        int bestDealer = 0;
+        int bestPone = 0;
+        double bestDealerNet = Double.NEGATIVE_INFINITY;
+        double bestPoneNet = Double.NEGATIVE_INFINITY;
+
+        for (int option = 0; option < DiscardOptimizer.OPTIONS; option++) {
+            long discarded = DiscardOptimizer.discardOption(dealt, option);
+            DiscardOptimizer.Choice choice = DiscardOptimizer.evaluateOption(dealt, discarded, true);
+
+            double dealerNet = choice.getExpectedHandPoints() + choice.getExpectedCribPoints();
+            double poneNet = choice.getExpectedHandPoints() - choice.getExpectedCribPoints();
+            if (dealerNet > bestDealerNet) {
+                bestDealerNet = dealerNet;
+                bestDealer = option;
+            }
+            if (poneNet > bestPoneNet) {
+                bestPoneNet = poneNet;
+                bestPone = option;
+            }
+        }
+
+        return (byte) ((bestDealer << 4) | bestPone);
+    }
+
+    /*
+    Returns the cards with every suit reassigned by permutation (suit s becomes permutation[s]).
+     */
+    static long permuteSuits(long cards, int[] permutation) {
+        long permuted = 0L;
+        for (int suit = 0; suit < 4; suit++) {
+            permuted |= ((cards >>> suit) & CLUBS_MASK) << permutation[suit];
+        }
+        return permuted;
+    }
+
+    /*
+    Returns the index of the suit permutation that gives the smallest bitmask (the canonical form) of the cards.
+     */
+    static int canonicalPermutation(long cards) {
+        int best = 0;
+        long smallest = Long.MAX_VALUE;
+        for (int i = 0; i < SUIT_PERMUTATIONS.length; i++) {
+            long permuted = permuteSuits(cards, SUIT_PERMUTATIONS[i]);
+            if (permuted < smallest) {
+                smallest = permuted;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /*
+    Returns the canonical form of the cards: the smallest bitmask over all suit permutations.
+     */
+    static long canonical(long cards) {
+        return permuteSuits(cards, SUIT_PERMUTATIONS[canonicalPermutation(cards)]);
+    }
+
+    /*
+    Returns the table entry of a deal, given the entry of its canonical form.
+     */
+    static byte entryFromCanonical(long dealt, byte canonicalEntry) {
+        int permutation = canonicalPermutation(dealt);
+        long canonicalDeal = permuteSuits(dealt, SUIT_PERMUTATIONS[permutation]);
+        int[] inverse = INVERSE_PERMUTATIONS[permutation];
+
+        long dealerDiscard = permuteSuits(DiscardOptimizer.discardOption(canonicalDeal, (canonicalEntry >>> 4) & 0xF), inverse);
+        long poneDiscard = permuteSuits(DiscardOptimizer.discardOption(canonicalDeal, canonicalEntry & 0xF), inverse);
+
+        return (byte) ((DiscardOptimizer.optionIndex(dealt, dealerDiscard) << 4)
+                | DiscardOptimizer.optionIndex(dealt, poneDiscard));
+    }
+
+    /*
+    Generates the table file at path with the given number of threads, resuming from a checkpoint if there is one.
+     */
+    public static void generate(Path path, int threads) throws IOException, InterruptedException {
+        Path checkpointPath = checkpointPath(path);
+        byte[] finished = Files.exists(checkpointPath) && Files.exists(path)
+                ? Files.readAllBytes(checkpointPath) : new byte[2 * CHUNKS];
+        if (finished.length != 2 * CHUNKS) {
+            throw new IllegalStateException("Checkpoint doesn't match this table: " + checkpointPath);
+        }
+        Files.write(checkpointPath, finished);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + ENTRIES);
+
+            for (int pass = 0; pass < 2; pass++) {
+                for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                    if (finished[pass * CHUNKS + chunk] != 0) {
+                        continue;
+                    }
+
+                    long start = System.nanoTime();
+                    runChunk(pool, table, pass, chunk);
+                    table.force();
+
+                    finished[pass * CHUNKS + chunk] = 1;
+                    Files.write(checkpointPath, finished);
+                    System.out.println("Pass " + (pass + 1) + ", chunk " + (chunk + 1) + "/" + CHUNKS + " done in "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                }
+            }
+
+            table.putLong(0, MAGIC);
+            table.putLong(8, ENTRIES);
+            table.force();
+        } finally {
+            pool.shutdown();
+        }
+
+        Files.delete(checkpointPath);
+    }
+
+    /*
+    Fills one chunk of the table. Pass 0 evaluates the canonical deals; pass 1 copies every other deal from its
+    canonical deal.
+     */
+    private static void runChunk(ForkJoinPool pool, MappedByteBuffer table, int pass, int chunk)
+            throws InterruptedException {
+        int start = chunk * CHUNK_SIZE;
+        int end = (int) Math.min(ENTRIES, (long) start + CHUNK_SIZE);
+
+        try {
+            pool.submit(() -> IntStream.range(start, end).parallel().forEach(rank -> {
+                long dealt = CardCombinations.unrank(HAND_SIZE, rank);
+                long canonicalDeal = canonical(dealt);
+
+                if (pass == 0 && canonicalDeal == dealt) {
+                    table.put(HEADER_BYTES + rank, bestOptions(dealt));
+                } else if (pass == 1 && canonicalDeal != dealt) {
+                    byte canonicalEntry = table.get((int) (HEADER_BYTES + CardCombinations.rank(canonicalDeal)));
+                    table.put(HEADER_BYTES + rank, entryFromCanonical(dealt, canonicalEntry));
+                }
+            })).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Discard table generation failed", e.getCause());
+        }
+    }
+
+    // returns the path of the checkpoint file kept next to the table while it is being generated
+    private static Path checkpointPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".checkpoint");
+    }
+
+    /*
+    Build step. Usage: DiscardTable <output file> [threads]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: DiscardTable <output file> [threads]");
+            return;
+        }
+
+        Path path = Paths.get(args[0]);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        generate(path, threads);
+        System.out.println("Wrote " + ENTRIES + " deals to " + path + " in "
+                + (System.nanoTime() - start) / 1_000_000_000 + " s");
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscardTableTest {
+
+    /*
+    Expected:
+        - option numbers and discards convert back and forth for every option
+        - a deal and any suit-swapped copy of it have the same canonical form
+     */
+    @Test
+    void optionsAndCanonicalForm() {
+        long dealt = (1L << 0) | (1L << 9) | (1L << 18) | (1L << 27) | (1L << 36) | (1L << 45);
+
+        for (int option = 0; option < DiscardOptimizer.OPTIONS; option++) {
+            long discarded = DiscardOptimizer.discardOption(dealt, option);
+            assertEquals(2, Long.bitCount(discarded));
+            assertEquals(discarded, discarded & dealt);
+            assertEquals(option, DiscardOptimizer.optionIndex(dealt, discarded));
+        }
+
+        long swapped = DiscardTable.permuteSuits(dealt, new int[]{2, 0, 3, 1});
+        assertNotEquals(dealt, swapped);
+        assertEquals(DiscardTable.canonical(dealt), DiscardTable.canonical(swapped));
+    }
+
+    /*
+    Expected: the entry copied from a deal's canonical form picks the same expected points as evaluating
+        the deal itself, for both the dealer and the pone.
+     */
+    @Test
+    void entryFromCanonical() {
+        SplittableRandom random = new SplittableRandom(6);
+
+        for (int i = 0; i < 200; i++) {
+            long dealt = 0L;
+            while (Long.bitCount(dealt) < 6) {
+                dealt |= 1L << random.nextInt(52);
+            }
+            long canonicalDeal = DiscardTable.canonical(dealt);
+
+            byte direct = DiscardTable.bestOptions(dealt);
+            byte copied = DiscardTable.entryFromCanonical(dealt, DiscardTable.bestOptions(canonicalDeal));
+
+            assertEquals(net(dealt, (direct >>> 4) & 0xF, true), net(dealt, (copied >>> 4) & 0xF, true), 1e-9);
+            assertEquals(net(dealt, direct & 0xF, false), net(dealt, copied & 0xF, false), 1e-9);
+            assertEquals(DiscardOptimizer.bestDiscard(dealt, true).getNet(), net(dealt, (direct >>> 4) & 0xF, true), 1e-9);
+        }
+    }
+
+    // returns the expected net points of an option
+    private double net(long dealt, int option, boolean dealer) {
+        return DiscardOptimizer.evaluateOption(dealt, DiscardOptimizer.discardOption(dealt, option), dealer).getNet();
+    }
+}
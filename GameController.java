@@ -1,36 +1,69 @@
 package com.demo.example.controller;
 
+import com.demo.example.BatchScorer;
 import com.demo.example.Card;
+import com.demo.example.CardLocations;
+import com.demo.example.CardRegistry;
+import com.demo.example.DiscardOptimizer;
 import com.demo.example.Game;
-import com.demo.example.GameService;
+import com.demo.example.GameRegistry;
+import com.demo.example.GameSession;
+import com.demo.example.GameStateResponse;
 import com.demo.example.Hand;
+import com.demo.example.HeadlessGame;
+import com.demo.example.PeggingState;
+import com.demo.example.ScoreTable;
+import com.demo.example.ScoringEngine;
+import com.demo.example.WinProbabilityTable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
 public class GameController {
 
-    private final GameService gameService;
+    // shared by every request: building a mapper (and its serializer caches) per response is most of the cost
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter STATE_WRITER = MAPPER.writerFor(GameStateResponse.class);
+
+    // cards each player discards to the crib in DEAL
+    private static final int CRIB_DISCARDS = 2;
+
+    // every table being played, by game ID. Each endpoint runs on its game's shard thread.
+    private final GameRegistry gameRegistry;
 
     @Autowired
-    public GameController(GameService gameService) {
-        this.gameService = gameService;
+    public GameController(GameRegistry gameRegistry) {
+        this.gameRegistry = gameRegistry;
     }
 
     @GetMapping("/current-game")
-    public String startGame(){
+    public CompletableFuture<String> startGame(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId) {
+        return gameRegistry.submit(gameId, this::startGame);
+    }
 
-        Game current_game = gameService.getCurrentGame();
+    private String startGame(GameSession session) {
+
+        Game current_game = session.getGame();
+        CardLocations cardLocations = session.getCardLocations();
+        session.changed();
         current_game.setGameStatus(Game.GameStatus.NOTSTARTED);
 
         // choose first dealer
@@ -54,71 +87,98 @@ public class GameController {
             current_game.dealCard(current_game.getPlayerA());
             current_game.dealCard(current_game.getPlayerB());
         }
+        cardLocations.rebuild(current_game);
+        session.getPegging().reset();
 
         current_game.resetRunningSum();
         current_game.identifyLegalAndNotLegalCards(0);
 
-        return sendData(current_game);
+        return sendData(session);
     }
 
     @PostMapping("/play-card")
-    public String playCard(@RequestBody Map<String, Object> cardInfo) {
-        Game current_game = gameService.getCurrentGame();
+    public CompletableFuture<String> playCard(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId,
+                                              @RequestBody Map<String, Object> cardInfo) {
+        return gameRegistry.submit(gameId, session -> playCard(session, cardInfo));
+    }
+
+    private String playCard(GameSession session, Map<String, Object> cardInfo) {
+        Game current_game = session.getGame();
+        CardLocations cardLocations = session.getCardLocations();
+        PeggingState pegging = session.getPegging();
 
         int cardValue = (int) cardInfo.get("value");
         int cardSuit = (int) cardInfo.get("suit");
         String gamestatus = (String) cardInfo.get("gameStatus");
 
+        Game.GameStatus previousStatus = current_game.getGameStatus();
         current_game.setGameStatus(Game.GameStatus.fromString(gamestatus));
+        if (current_game.getGameStatus() != previousStatus) {
+            session.changed();
+        }
+
+        Card sent_card = CardRegistry.of(cardValue, cardSuit);
+
+        // only cards still in a hand can be played or discarded (not ones already played or in a crib)
+        CardLocations.Location sentFrom = cardLocations.get(sent_card);
+        boolean sentByA = sentFrom == CardLocations.Location.HAND_A;
+        if (!sentByA && sentFrom != CardLocations.Location.HAND_B) {
+            return sendData(session);
+        }
 
-        Card sent_card = Card.of(cardValue, cardSuit);
+        // a player can't discard more than two cards to the crib
+        if (current_game.getGameStatus().equals(Game.GameStatus.DEAL)) {
+            CardLocations.Location crib = sentByA ? CardLocations.Location.CRIB_A : CardLocations.Location.CRIB_B;
+            if (Long.bitCount(cardLocations.getCards(crib)) >= CRIB_DISCARDS) {
+                return sendData(session);
+            }
+        }
+
+        // only the current player can play (or the other player, if the current one has nothing they can play), and
+        // only a card that keeps the count at 31 or under. When no one can play, the count starts again from 0 with
+        // this card.
+        if (current_game.getGameStatus().equals(Game.GameStatus.PLAY)) {
+            int count = current_game.doesSomeoneHaveLegalCards(current_game.getPlayerA(), current_game.getPlayerB(),
+                    current_game.getRunningSum()) ? current_game.getRunningSum() : 0;
+            if (sentByA != current_game.isCurrentPlayerA()
+                    && current_game.hasLegalCard(current_game.getCurrentPlayer(), count)) {
+                return sendData(session);
+            }
+            if (count + sent_card.getScoringValue() > HeadlessGame.MAX_COUNT) {
+                return sendData(session);
+            }
+        }
+        session.changed();
 
         // Process the played card based on value and suit
 
         // - Update the game stat
         // DEAL
         if (current_game.getGameStatus().equals(Game.GameStatus.DEAL)) {
-            if (current_game.getPlayerA().getHand().getCards().contains(sent_card)){
-//                if (current_game.getPlayerA().getHand().getCards().size() <= 4) {
-//                    System.out.println("can't do that");
-//                } else {
-                    current_game.getPlayerA().addCardToCrib(sent_card);
-                    current_game.getPlayerA().getHand().removeCardFromHand(sent_card);
-//                }
-                //System.out.println(current_game.getPlayerA().getHand().getHandAsIntArray());
+            if (sentByA){
+                current_game.getPlayerA().addCardToCrib(sent_card);
+                current_game.getPlayerA().getHand().removeCardFromHand(sent_card);
+                cardLocations.move(sent_card, CardLocations.Location.HAND_A, CardLocations.Location.CRIB_A);
             } else {
-//                if (current_game.getPlayerB().getHand().getCards().size() <= 4) {
-//                    System.out.println("can't do that");
-//                } else {
-                    current_game.getPlayerB().addCardToCrib(sent_card);
-                    current_game.getPlayerB().getHand().removeCardFromHand(sent_card);
-//                }
+                current_game.getPlayerB().addCardToCrib(sent_card);
+                current_game.getPlayerB().getHand().removeCardFromHand(sent_card);
+                cardLocations.move(sent_card, CardLocations.Location.HAND_B, CardLocations.Location.CRIB_B);
             }
 
-            return sendData(current_game);
+            return sendData(session);
 
         } else if (current_game.getGameStatus().equals(Game.GameStatus.PLAY)) {
             // PLAY
-//
-//            // if card is in non-player's hand, don't allow it to be played
-//            if (!current_game.getCurrentPlayer().getHand().getCards().contains(sent_card)) {
-//                return sendData(current_game);
-//            }
-//
-//            // if card isn't legal to play, don't allow it to be played
-//            if (!current_game.isLegalCard(sent_card, current_game.getRunningSum())) {
-//                System.out.println("not legal card");
-//                return sendData(current_game);
-//            }
-
             if (!current_game.doesSomeoneHaveLegalCards(current_game.getPlayerA(),current_game.getPlayerB(),current_game.getRunningSum())) {
                 current_game.resetRunningSum();
+                pegging.startNewCount();
                 current_game.identifyLegalAndNotLegalCards(0);
-                if (current_game.getPlayerA().getHand().getCards().contains(sent_card)) {
+                if (sentByA) {
                     current_game.addCardToPlayedCards(sent_card);
-                    current_game.getBoard().addToPlayerAPoints(current_game.calculatePointsInArray(current_game.getPlayedCards()));
+                    current_game.getBoard().addToPlayerAPoints(pegging.addCard(sent_card));
                     current_game.addToRunningSum(sent_card.getScoringValue());
                     current_game.getPlayerA().getHand().removeCardFromHand(sent_card);
+                    cardLocations.move(sent_card, CardLocations.Location.HAND_A, CardLocations.Location.PLAYED_A);
                     current_game.addToPlayerAPlayed(sent_card);
                     current_game.identifyLegalAndNotLegalCards(current_game.getRunningSum());
                     current_game.chooseCurrentPlayer(current_game.isCurrentPlayerA(), current_game.getRunningSum());
@@ -126,12 +186,13 @@ public class GameController {
                     if (current_game.handsEmpty()) {
                         current_game.setGameStatus(Game.GameStatus.SHOW);
                     }
-                    return sendData(current_game);
+                    return sendData(session);
                 } else {
                     current_game.addCardToPlayedCards(sent_card);
-                    current_game.getBoard().addToPlayerBPoints(current_game.calculatePointsInArray(current_game.getPlayedCards()));
+                    current_game.getBoard().addToPlayerBPoints(pegging.addCard(sent_card));
                     current_game.addToRunningSum(sent_card.getScoringValue());
                     current_game.getPlayerB().getHand().removeCardFromHand(sent_card);
+                    cardLocations.move(sent_card, CardLocations.Location.HAND_B, CardLocations.Location.PLAYED_B);
                     current_game.addToPlayerBPlayed(sent_card);
                     System.out.println("B played");
                     System.out.println(sent_card);
@@ -141,15 +202,16 @@ public class GameController {
                     if (current_game.handsEmpty()) {
                         current_game.setGameStatus(Game.GameStatus.SHOW);
                     }
-                    return sendData(current_game);
+                    return sendData(session);
                 }
             }
 
-            if (current_game.getPlayerA().getHand().getCards().contains(sent_card)) {
+            if (sentByA) {
                 current_game.addCardToPlayedCards(sent_card);
-                current_game.getBoard().addToPlayerAPoints(current_game.calculatePointsInArray(current_game.getPlayedCards()));
+                current_game.getBoard().addToPlayerAPoints(pegging.addCard(sent_card));
                 current_game.addToRunningSum(sent_card.getScoringValue());
                 current_game.getPlayerA().getHand().removeCardFromHand(sent_card);
+                cardLocations.move(sent_card, CardLocations.Location.HAND_A, CardLocations.Location.PLAYED_A);
                 current_game.addToPlayerAPlayed(sent_card);
                 current_game.identifyLegalAndNotLegalCards(current_game.getRunningSum());
                 current_game.chooseCurrentPlayer(current_game.isCurrentPlayerA(), current_game.getRunningSum());
@@ -157,12 +219,13 @@ public class GameController {
                 if (current_game.handsEmpty()) {
                     current_game.setGameStatus(Game.GameStatus.SHOW);
                 }
-                return sendData(current_game);
+                return sendData(session);
             } else {
                 current_game.addCardToPlayedCards(sent_card);
-                current_game.getBoard().addToPlayerBPoints(current_game.calculatePointsInArray(current_game.getPlayedCards()));
+                current_game.getBoard().addToPlayerBPoints(pegging.addCard(sent_card));
                 current_game.addToRunningSum(sent_card.getScoringValue());
                 current_game.getPlayerB().getHand().removeCardFromHand(sent_card);
+                cardLocations.move(sent_card, CardLocations.Location.HAND_B, CardLocations.Location.PLAYED_B);
                 current_game.addToPlayerBPlayed(sent_card);
                 System.out.println("B played");
                 System.out.println(sent_card);
@@ -172,13 +235,13 @@ public class GameController {
                 if (current_game.handsEmpty()) {
                     current_game.setGameStatus(Game.GameStatus.SHOW);
                 }
-                return sendData(current_game);
+                return sendData(session);
             }
             }
             // check if someone has won
             if (current_game.getBoard().hasSomeoneWon()) {
                 current_game.setGameStatus(Game.GameStatus.OVER);
-                return sendData(current_game);
+                return sendData(session);
                 // TODO: somehow print this out --> doing at frontend
             }
             /*
@@ -189,16 +252,16 @@ public class GameController {
                 current_game.addToRunningSum(sent_card.getScoringValue());
                 current_game.getPlayerA().getHand().removeCardFromHand(sent_card);
 
-                return sendData(current_game);
+                return sendData(session);
             } else {
                 current_game.addCardToPlayedCards(sent_card);
                 current_game.getBoard().addToPlayerBPoints(current_game.calculatePointsInArray(current_game.getPlayedCards()));
                 current_game.addToRunningSum(sent_card.getScoringValue());
                 current_game.getPlayerB().getHand().removeCardFromHand(sent_card);
-                return sendData(current_game);
+                return sendData(session);
             }
              */
-        return sendData(current_game);
+        return sendData(session);
     }
 
     // - Determine the next steps in the game
@@ -207,27 +270,34 @@ public class GameController {
     // After processing the card, prepare the updated game state
     // For example, assume newGameState is a Map representing the updated game stat
     @PostMapping("/show-score")
-    public String showScore() {
-        Game current_game = gameService.getCurrentGame();
+    public CompletableFuture<String> showScore(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId) {
+        return gameRegistry.submit(gameId, this::showScore);
+    }
+
+    private String showScore(GameSession session) {
+        Game current_game = session.getGame();
+        CardLocations cardLocations = session.getCardLocations();
+        session.changed();
 
         current_game.getPlayerA().createHand(current_game.getPlayerAPlayed());
         current_game.getPlayerB().createHand(current_game.getPlayerBPlayed());
+        cardLocations.rebuild(current_game);
 
         // current dealer counts second
         if (current_game.isCurrentDealerA()) {
             // count B's hand
-            current_game.getBoard().addToPlayerBPoints(current_game.getPlayerB().getHand().calculatePoints(current_game.faceUpCard));
+            current_game.getBoard().addToPlayerBPoints(ScoreTable.calculatePoints(current_game.getPlayerB().getHand(), current_game.faceUpCard));
             // check if B won
             if (current_game.getBoard().didPlayerBWin()) {
                 current_game.setGameStatus(Game.GameStatus.OVER);
-                return sendData(current_game);
+                return sendData(session);
             }
 
             // count A's hand
-            current_game.getBoard().addToPlayerAPoints(current_game.getPlayerA().getHand().calculatePoints(current_game.faceUpCard));
+            current_game.getBoard().addToPlayerAPoints(ScoreTable.calculatePoints(current_game.getPlayerA().getHand(), current_game.faceUpCard));
 
             // count A's crib
-            current_game.getBoard().addToPlayerAPoints(current_game.getPlayerA().getCrib().calculatePoints(current_game.faceUpCard));
+            current_game.getBoard().addToPlayerAPoints(ScoringEngine.calculateCribPoints(current_game.getPlayerA().getCrib(), current_game.faceUpCard));
 
             // check if A won
             if (current_game.getBoard().didPlayerAWin()) {
@@ -236,33 +306,39 @@ public class GameController {
             }
         } else {
             // count A's hand
-            current_game.getBoard().addToPlayerBPoints(current_game.getPlayerA().getHand().calculatePoints(current_game.faceUpCard));
+            current_game.getBoard().addToPlayerBPoints(ScoreTable.calculatePoints(current_game.getPlayerA().getHand(), current_game.faceUpCard));
             // check if A won
             if (current_game.getBoard().didPlayerAWin()) {
                 current_game.setGameStatus(Game.GameStatus.OVER);
-                return sendData(current_game);
+                return sendData(session);
             }
 
             // count B's hand
-            current_game.getBoard().addToPlayerAPoints(current_game.getPlayerB().getHand().calculatePoints(current_game.faceUpCard));
+            current_game.getBoard().addToPlayerAPoints(ScoreTable.calculatePoints(current_game.getPlayerB().getHand(), current_game.faceUpCard));
 
             // count B's crib
-            current_game.getBoard().addToPlayerAPoints(current_game.getPlayerB().getCrib().calculatePoints(current_game.faceUpCard));
+            current_game.getBoard().addToPlayerAPoints(ScoringEngine.calculateCribPoints(current_game.getPlayerB().getCrib(), current_game.faceUpCard));
 
             // check if B won
             if (current_game.getBoard().didPlayerBWin()) {
                 current_game.setGameStatus(Game.GameStatus.OVER);
-                return sendData(current_game);
+                return sendData(session);
             }
         }
 
-        return sendData(current_game);
+        return sendData(session);
 
     }
 
     @PostMapping("/start-new-round")
-    public String startNewRound () {
-        Game current_game = gameService.getCurrentGame();
+    public CompletableFuture<String> startNewRound(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId) {
+        return gameRegistry.submit(gameId, this::startNewRound);
+    }
+
+    private String startNewRound(GameSession session) {
+        Game current_game = session.getGame();
+        CardLocations cardLocations = session.getCardLocations();
+        session.changed();
         current_game.setGameStatus(Game.GameStatus.NOTSTARTED);
 
         // toggle dealer
@@ -277,14 +353,20 @@ public class GameController {
             current_game.dealCard(current_game.getPlayerA());
             current_game.dealCard(current_game.getPlayerB());
         }
+        cardLocations.rebuild(current_game);
+        session.getPegging().reset();
 
-        return sendData(current_game);
+        return sendData(session);
     }
 
     @PostMapping("/start-new-game")
-    public String startNewGame () {
+    public CompletableFuture<String> startNewGame(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId) {
+        return gameRegistry.submit(gameId, this::startNewGame);
+    }
+
+    private String startNewGame(GameSession session) {
         Game newGame = Game.of();  // Create a new game instance
-        gameService.setCurrentGame(newGame);  // Set the new game as the current game
+        session.setGame(newGame);  // Set the new game as this table's game
         newGame.setGameStatus(Game.GameStatus.NOTSTARTED);
 
         // choose first dealer
@@ -308,43 +390,170 @@ public class GameController {
             newGame.dealCard(newGame.getPlayerA());
             newGame.dealCard(newGame.getPlayerB());
         }
+        session.getCardLocations().rebuild(newGame);
+        session.getPegging().reset();
+
+        return sendData(session);
+    }
 
-        Game current_game = gameService.getCurrentGame();
-        return sendData(current_game);
+    @GetMapping("/discard-hint")
+    public CompletableFuture<String> discardHint(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId,
+                                                 @RequestParam(defaultValue = "A") String player) {
+        return gameRegistry.submit(gameId, session -> discardHint(session, player));
     }
 
-    public String sendData(Game game){
-        Map<String, Object> gameInfo = new HashMap<>();
-        gameInfo.put("gameState", game.getGameStatus());
-        if(game.getPlayerA().getHand() == null){
-            gameInfo.put("player1Hand", game.getPlayerA().getHand());
+    private String discardHint(GameSession session, String player) {
+        Game current_game = session.getGame();
+
+        boolean isPlayerA = player.equalsIgnoreCase("A");
+        Hand hand = isPlayerA ? current_game.getPlayerA().getHand() : current_game.getPlayerB().getHand();
+        boolean isDealer = isPlayerA == current_game.isCurrentDealerA();
+
+        Map<String, Object> hintInfo = new HashMap<>();
+        if (hand != null && hand.getCards().size() == DiscardOptimizer.DEALT_CARDS) {
+            DiscardOptimizer.Choice best = DiscardOptimizer.bestDiscard(hand, isDealer);
+            hintInfo.put("discard", Hand.of(best.getDiscarded()).getHandAsIntArray());
+            hintInfo.put("expectedHandPoints", best.getExpectedHandPoints());
+            hintInfo.put("expectedCribPoints", best.getExpectedCribPoints());
+            hintInfo.put("net", best.getNet());
         }
-        else{
-            gameInfo.put("player1Hand", game.getPlayerA().getHand().getHandAsIntArray());
+
+        try {
+            return MAPPER.writeValueAsString(hintInfo);
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+            return "Error processing JSON";
         }
+    }
+
+    // 5 bytes per hand in, 1 score byte per hand streamed back out; see BatchScorer for the format
+    @PostMapping(value = "/score/batch", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> scoreBatch(InputStream body) {
+        StreamingResponseBody scores = out -> BatchScorer.of().score(body, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(scores);
+    }
+
+    @GetMapping("/win-probability")
+    public CompletableFuture<String> winProbability(@RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId) {
+        return gameRegistry.submit(gameId, this::winProbability);
+    }
+
+    private String winProbability(GameSession session) {
+        Game current_game = session.getGame();
+
+        // only answered when a table has been built and configured with -Dcribbage.win-table
+        Map<String, Object> probabilityInfo = new HashMap<>();
+        WinProbabilityTable table = WinProbabilityTable.shared();
+        if (table != null) {
+            double playerA = table.getWinProbability(current_game);
+            probabilityInfo.put("player1", playerA);
+            probabilityInfo.put("player2", 1.0 - playerA);
+        }
+
+        try {
+            return MAPPER.writeValueAsString(probabilityInfo);
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+            return "Error processing JSON";
+        }
+    }
 
-        if(game.getPlayerB().getHand() == null){
-            gameInfo.put("player2Hand", game.getPlayerB().getHand());
+    /*
+    Reads the game state without changing the game, for clients polling a table.
+
+    The ETag is the session's version, so a client that sends it back in If-None-Match gets 304 Not Modified until
+    the game changes. With since (a version the client already has), only the fields that changed since that version
+    are sent, as a GameStateResponse.Delta; if that version is too old to be remembered, every field is sent, with
+    "full": true.
+     */
+    @GetMapping("/game-state")
+    public CompletableFuture<ResponseEntity<String>> gameState(
+            @RequestParam(defaultValue = GameRegistry.DEFAULT_GAME_ID) String gameId,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return gameRegistry.submit(gameId, session -> gameState(session, since, ifNoneMatch));
+    }
+
+    private ResponseEntity<String> gameState(GameSession session, Long since, String ifNoneMatch) {
+        long version = session.getVersion();
+        String eTag = "\"" + version + "\"";
+        if (matchesETag(ifNoneMatch, eTag) || (since != null && since == version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
-        else{
-            gameInfo.put("player2Hand", game.getPlayerB().getHand().getHandAsIntArray());
+
+        String json = sendData(session);
+        if (since != null) {
+            GameStateResponse previous = session.getSentState(since);
+            try {
+                json = MAPPER.writeValueAsString(GameStateResponse.Delta.of(session.getState(), previous, version));
+            } catch (JsonProcessingException e) {
+                e.printStackTrace();
+                return ResponseEntity.internalServerError().body("Error processing JSON");
+            }
         }
-        gameInfo.put("player1Points", game.board.getPlayerAPoints());
-        gameInfo.put("player2Points", game.board.getPlayerBPoints());
-        gameInfo.put("Player1Won", game.board.didPlayerAWin());
-        gameInfo.put("Player2Won", game.board.didPlayerBWin());
-        gameInfo.put("Player1HasLegalCards", game.hasLegalCard(game.getPlayerA(),game.getRunningSum()));
-        gameInfo.put("Player2HasLegalCards", game.hasLegalCard(game.getPlayerB(),game.getRunningSum()));
-        gameInfo.put("RunningSum", game.getRunningSum());
-
-        // Convert to JSON using Jackson ObjectMapper
-        ObjectMapper mapper = new ObjectMapper();
+        return ResponseEntity.ok().eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    // true if an If-None-Match header (a list of ETags, weak or strong, or *) matches eTag
+    static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @GetMapping("/registry-metrics")
+    public String registryMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("liveGames", gameRegistry.getLiveCount());
+        metrics.put("coldGames", gameRegistry.getColdCount());
+        metrics.put("demotions", gameRegistry.getDemotions());
+        metrics.put("rehydrations", gameRegistry.getRehydrations());
+        metrics.put("expirations", gameRegistry.getExpirations());
+
         try {
-            String json = mapper.writeValueAsString(gameInfo);
+            return MAPPER.writeValueAsString(metrics);
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+            return "Error processing JSON";
+        }
+    }
+
+    // a missing or too long game ID
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /*
+    Returns the game state as JSON. The JSON is written once per version of the game and sent as is until the game
+    changes, and the response object is reused, so repeat reads serialize nothing.
+     */
+    public String sendData(GameSession session) {
+        String json = session.getJson();
+        if (json != null) {
             return json;
+        }
+
+        GameStateResponse state = session.getState();
+        state.update(session.getGame());
+        try {
+            json = STATE_WRITER.writeValueAsString(state);
         } catch (JsonProcessingException e) {
             e.printStackTrace();
             return "Error processing JSON";
         }
+        session.setJson(json);
+        return json;
     }
 }
@@ -0,0 +1,381 @@
+package com.demo.example;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/*
+This class holds every game being played, by game ID, so each client plays its own table.
+
+Games are split into shards by a hash of their ID. Each shard has a single thread that owns its games: every action
+on a game runs on that thread, one after another, in the order the actions were submitted. So a game's actions never
+overlap, the games of a shard are kept in plain maps, and no locks are needed. Shards run in parallel, so throughput
+grows with the number of shards (one per core by default).
+
+Memory is bounded in two tiers:
+    - live games are full GameSessions. A game that hasn't been used for the idle time, or the least recently used
+        game of a shard over its share of the live cap, is demoted to a PackedState (32 bytes).
+    - demoted (cold) games are rehydrated into a new GameSession the next time their ID is used, so clients don't
+        notice. Cold games are dropped once they have been cold for the expiry time, or oldest first when there are
+        more than the cold cap.
+Games that were never started have nothing worth keeping, so they are dropped instead of demoted.
+A background thread sweeps every shard for idle and expired games; the sweep itself runs on each shard's thread.
+
+Settings (system properties):
+    - cribbage.games.idle-seconds: time before an unused game is demoted (default 900)
+    - cribbage.games.max-live: live games across all shards (default 10000)
+    - cribbage.games.expire-seconds: time before a cold game is dropped (default 86400)
+    - cribbage.games.max-cold: cold games across all shards (default 200000)
+
+Responsibilities:
+    - Run an action on a game's shard thread, creating or rehydrating the game first
+    - Demote, rehydrate and drop games as above, and count each
+    - Remove games
+    - Shut the shard and sweeper threads down with the application
+
+Relies upon:
+    - GameSession, for each live game and its card locations
+    - PackedState, for cold games
+ */
+
+@Service
+public class GameRegistry {
+
+    // game ID used by clients that don't send one
+    public static final String DEFAULT_GAME_ID = "default";
+
+    // longest game ID accepted, so IDs can't be used to fill memory
+    public static final int MAX_ID_LENGTH = 64;
+
+    public static final String IDLE_SECONDS_PROPERTY = "cribbage.games.idle-seconds";
+    public static final String MAX_LIVE_PROPERTY = "cribbage.games.max-live";
+    public static final String EXPIRE_SECONDS_PROPERTY = "cribbage.games.expire-seconds";
+    public static final String MAX_COLD_PROPERTY = "cribbage.games.max-cold";
+
+    private static final long MAX_SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Shard[] shards;
+    private final int maxLivePerShard;
+    private final int maxColdPerShard;
+    private final long idleNanos;
+    private final long expireNanos;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService sweeper;
+
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private final AtomicInteger coldCount = new AtomicInteger();
+    private final AtomicLong demotions = new AtomicLong();
+    private final AtomicLong rehydrations = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    // one shard's thread and the games it owns. Only touched from that thread.
+    private static final class Shard {
+        private final ExecutorService executor;
+        // in access order, least recently used first
+        private final LinkedHashMap<String, GameSession> live = new LinkedHashMap<>(16, 0.75f, true);
+        // in the order they were demoted
+        private final LinkedHashMap<String, ColdGame> cold = new LinkedHashMap<>();
+
+        private Shard(ExecutorService executor) {
+            this.executor = executor;
+        }
+    }
+
+    // a demoted game
+    private static final class ColdGame {
+        private final PackedState state;
+        private final long demotedAt;
+
+        private ColdGame(PackedState state, long demotedAt) {
+            this.state = state;
+            this.demotedAt = demotedAt;
+        }
+    }
+
+    /*
+    Constructor used by Spring: one shard per core, settings from the system properties.
+     */
+    public GameRegistry() {
+        this(Runtime.getRuntime().availableProcessors(),
+                Integer.getInteger(MAX_LIVE_PROPERTY, 10000),
+                TimeUnit.SECONDS.toNanos(Long.getLong(IDLE_SECONDS_PROPERTY, 900L)),
+                Integer.getInteger(MAX_COLD_PROPERTY, 200000),
+                TimeUnit.SECONDS.toNanos(Long.getLong(EXPIRE_SECONDS_PROPERTY, 86400L)),
+                System::nanoTime, true);
+    }
+
+    /*
+    Constructor.
+    shardCount: number of single-thread shards, >= 1.
+    maxLive, maxCold: caps across all shards, split evenly (at least one per shard).
+    idleNanos, expireNanos: times measured with clock, which returns nanoseconds.
+    sweep: start the background sweeper. Without it, games are only demoted by the live cap and by sweep().
+     */
+    private GameRegistry(int shardCount, int maxLive, long idleNanos, int maxCold, long expireNanos,
+                         LongSupplier clock, boolean sweep) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Need at least one shard");
+        }
+        this.shards = new Shard[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            this.shards[shard] = new Shard(Executors.newSingleThreadExecutor(daemon("game-shard-" + shard)));
+        }
+        this.maxLivePerShard = Math.max(1, maxLive / shardCount);
+        this.maxColdPerShard = Math.max(1, maxCold / shardCount);
+        this.idleNanos = idleNanos;
+        this.expireNanos = expireNanos;
+        this.clock = clock;
+
+        if (sweep) {
+            long interval = Math.max(TimeUnit.SECONDS.toNanos(1), Math.min(idleNanos / 4, MAX_SWEEP_INTERVAL_NANOS));
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(daemon("game-sweeper"));
+            this.sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /*
+    Factory method. Creates a registry with shardCount shards, the default caps and no background sweeper.
+     */
+    public static GameRegistry of(int shardCount) {
+        return of(shardCount, 10000, TimeUnit.SECONDS.toNanos(900), 200000, TimeUnit.SECONDS.toNanos(86400),
+                System::nanoTime);
+    }
+
+    /*
+    Factory method. Creates a registry with the given caps and times (in nanoseconds of clock), and no background
+    sweeper: idle and expired games are found by calling sweep().
+     */
+    public static GameRegistry of(int shardCount, int maxLive, long idleNanos, int maxCold, long expireNanos,
+                                  LongSupplier clock) {
+        return new GameRegistry(shardCount, maxLive, idleNanos, maxCold, expireNanos, clock, false);
+    }
+
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    // returns the number of games in the registry, live and cold
+    public int getSessionCount() {
+        return this.liveCount.get() + this.coldCount.get();
+    }
+
+    public int getLiveCount() {
+        return this.liveCount.get();
+    }
+
+    public int getColdCount() {
+        return this.coldCount.get();
+    }
+
+    // returns the number of live games demoted to cold so far
+    public long getDemotions() {
+        return this.demotions.get();
+    }
+
+    // returns the number of cold games brought back to life so far
+    public long getRehydrations() {
+        return this.rehydrations.get();
+    }
+
+    // returns the number of games dropped so far: expired or over the cold cap, or never started
+    public long getExpirations() {
+        return this.expirations.get();
+    }
+
+    /*
+    Runs action on the game with gameId, on the game's shard thread, and returns its result.
+    The game is rehydrated if it is cold, and created (not started) if there isn't one with that ID.
+
+    Actions on the same game run one at a time in the order they were submitted. The future fails with
+    IllegalArgumentException for an empty or too long ID, and with whatever the action throws.
+     */
+    public <T> CompletableFuture<T> submit(String gameId, Function<GameSession, T> action) {
+        if (gameId == null || gameId.isEmpty() || gameId.length() > MAX_ID_LENGTH) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Bad game ID"));
+        }
+
+        Shard shard = shards[shardOf(gameId)];
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                GameSession session = open(shard, gameId);
+                try {
+                    return action.apply(session);
+                } finally {
+                    session.touch(clock.getAsLong());
+                    demoteOverCap(shard);
+                }
+            }, shard.executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Game registry is shut down", e));
+        }
+    }
+
+    // returns the live session for gameId, rehydrating or creating it. Runs on the shard's thread.
+    private GameSession open(Shard shard, String gameId) {
+        GameSession session = shard.live.get(gameId);
+        if (session != null) {
+            return session;
+        }
+
+        ColdGame cold = shard.cold.remove(gameId);
+        if (cold != null) {
+            coldCount.decrementAndGet();
+            Game game = cold.state.toGame();
+            game.identifyLegalAndNotLegalCards(game.getRunningSum());
+            session = GameSession.of(gameId, game);
+            rehydrations.incrementAndGet();
+        } else {
+            session = GameSession.of(gameId);
+        }
+        shard.live.put(gameId, session);
+        liveCount.incrementAndGet();
+        return session;
+    }
+
+    // demotes least recently used games while the shard has more than its share of live games
+    private void demoteOverCap(Shard shard) {
+        Iterator<GameSession> eldest = shard.live.values().iterator();
+        while (shard.live.size() > maxLivePerShard && eldest.hasNext()) {
+            demote(shard, eldest.next(), eldest);
+        }
+    }
+
+    /*
+    Demotes session (the one iterator just returned) to a cold game, or drops it if it was never started.
+    A game that can't be packed is left live.
+     */
+    private void demote(Shard shard, GameSession session, Iterator<GameSession> iterator) {
+        Game game = session.getGame();
+        if (game.getGameStatus() == null || game.getGameStatus() == Game.GameStatus.NOTSTARTED) {
+            iterator.remove();
+            liveCount.decrementAndGet();
+            expirations.incrementAndGet();
+            return;
+        }
+
+        PackedState state;
+        try {
+            state = PackedState.of(game);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        iterator.remove();
+        liveCount.decrementAndGet();
+        shard.cold.put(session.getId(), new ColdGame(state, clock.getAsLong()));
+        coldCount.incrementAndGet();
+        demotions.incrementAndGet();
+
+        Iterator<ColdGame> oldest = shard.cold.values().iterator();
+        while (shard.cold.size() > maxColdPerShard) {
+            oldest.next();
+            oldest.remove();
+            coldCount.decrementAndGet();
+            expirations.incrementAndGet();
+        }
+    }
+
+    /*
+    Demotes games that have been idle for the idle time and drops cold games that have been cold for the expiry time,
+    on every shard. Completes when every shard has been swept.
+     */
+    public CompletableFuture<Void> sweep() {
+        CompletableFuture<?>[] swept = new CompletableFuture<?>[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = shards[i];
+            try {
+                swept[i] = CompletableFuture.runAsync(() -> sweep(shard), shard.executor);
+            } catch (RejectedExecutionException e) {
+                swept[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        return CompletableFuture.allOf(swept);
+    }
+
+    // sweeps one shard. Both maps are oldest first, so each stops at the first game that is still fresh.
+    private void sweep(Shard shard) {
+        long now = clock.getAsLong();
+
+        Iterator<GameSession> live = shard.live.values().iterator();
+        while (live.hasNext()) {
+            GameSession session = live.next();
+            if (now - session.getLastAccess() < idleNanos) {
+                break;
+            }
+            demote(shard, session, live);
+        }
+
+        Iterator<ColdGame> cold = shard.cold.values().iterator();
+        while (cold.hasNext()) {
+            if (now - cold.next().demotedAt < expireNanos) {
+                break;
+            }
+            cold.remove();
+            coldCount.decrementAndGet();
+            expirations.incrementAndGet();
+        }
+    }
+
+    /*
+    Removes the game with gameId, live or cold, if there is one. Completes with true if a game was removed.
+     */
+    public CompletableFuture<Boolean> remove(String gameId) {
+        Shard shard = shards[shardOf(gameId)];
+        return CompletableFuture.supplyAsync(() -> {
+            if (shard.live.remove(gameId) != null) {
+                liveCount.decrementAndGet();
+                return true;
+            }
+            if (shard.cold.remove(gameId) != null) {
+                coldCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }, shard.executor);
+    }
+
+    /*
+    Returns the shard a game ID belongs to. The hash is spread so IDs that differ only in their last characters
+    still land on different shards.
+     */
+    int shardOf(String gameId) {
+        int hash = gameId.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /*
+    Stops the sweeper and the shard threads. Actions already submitted still run; new ones fail.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+    }
+
+}
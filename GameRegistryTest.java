@@ -0,0 +1,187 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRegistryTest {
+
+    /*
+    Expected: the same game ID always gets the same session, and different IDs get different sessions.
+     */
+    @Test
+    void sessionsById() throws ExecutionException, InterruptedException {
+        GameRegistry registry = GameRegistry.of(4);
+
+        GameSession first = registry.submit("table-1", session -> session).get();
+        GameSession again = registry.submit("table-1", session -> session).get();
+        GameSession other = registry.submit("table-2", session -> session).get();
+
+        assertSame(first, again);
+        assertNotSame(first, other);
+        assertEquals("table-1", first.getId());
+        assertNotNull(first.getGame());
+        assertEquals(2, registry.getSessionCount());
+        registry.shutdown();
+    }
+
+    /*
+    Expected: actions on one game run one at a time, in the order they were submitted, always on the same thread,
+        while games on other shards are being used too.
+     */
+    @Test
+    void actionsRunInOrder() throws ExecutionException, InterruptedException {
+        GameRegistry registry = GameRegistry.of(4);
+        List<Integer> order = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int action = i;
+            futures.add(registry.submit("table-1", session -> {
+                order.add(action);
+                threads.add(Thread.currentThread().getName());
+                return action;
+            }));
+            registry.submit("table-" + (i % 50), session -> session.getGame().getGameStatus());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, order.get(i));
+            assertEquals(threads.get(0), threads.get(i));
+        }
+        assertEquals(50, registry.submit("table-1", session -> registry.getSessionCount()).get());
+        registry.shutdown();
+    }
+
+    /*
+    Expected:
+        - a removed game starts again as a new game
+        - an empty or too long game ID fails with IllegalArgumentException
+     */
+    @Test
+    void removeAndBadIds() throws ExecutionException, InterruptedException {
+        GameRegistry registry = GameRegistry.of(2);
+
+        GameSession first = registry.submit("table-1", session -> session).get();
+        assertTrue(registry.remove("table-1").get());
+        assertFalse(registry.remove("table-1").get());
+        assertEquals(0, registry.getSessionCount());
+        assertNotSame(first, registry.submit("table-1", session -> session).get());
+
+        ExecutionException empty = assertThrows(ExecutionException.class,
+                () -> registry.submit("", session -> session).get());
+        assertInstanceOf(IllegalArgumentException.class, empty.getCause());
+        assertThrows(ExecutionException.class,
+                () -> registry.submit("x".repeat(GameRegistry.MAX_ID_LENGTH + 1), session -> session).get());
+        registry.shutdown();
+    }
+
+    /*
+    Expected: a dealt game left idle is demoted to a PackedState by a sweep, then comes back with the same state the
+        next time its ID is used. A game that was never started is dropped instead.
+     */
+    @Test
+    void idleGamesAreDemotedAndRehydrated() throws ExecutionException, InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        GameRegistry registry = GameRegistry.of(2, 100, 10, 100, 1000, clock::get);
+
+        PackedState dealt = registry.submit("table-1", GameRegistryTest::deal).get();
+        registry.submit("table-2", session -> session).get();
+        clock.addAndGet(20);
+        registry.sweep().get();
+
+        assertEquals(0, registry.getLiveCount());
+        assertEquals(1, registry.getColdCount());
+        assertEquals(1, registry.getDemotions());
+        assertEquals(1, registry.getExpirations());
+
+        GameSession session = registry.submit("table-1", value -> value).get();
+        assertEquals(dealt, PackedState.of(session.getGame()));
+        assertEquals(CardLocations.Location.STARTER,
+                session.getCardLocations().get(session.getGame().getFaceUpCard()));
+        assertEquals(1, registry.getRehydrations());
+        assertEquals(1, registry.getLiveCount());
+        assertEquals(0, registry.getColdCount());
+        registry.shutdown();
+    }
+
+    /*
+    Expected:
+        - with a cap of 2 live games, dealing a third demotes the least recently used one
+        - a cold game is dropped once it has been cold for the expiry time, and its ID starts a new game
+     */
+    @Test
+    void liveCapAndExpiry() throws ExecutionException, InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        GameRegistry registry = GameRegistry.of(1, 2, 1000, 100, 50, clock::get);
+
+        registry.submit("table-1", GameRegistryTest::deal).get();
+        registry.submit("table-2", GameRegistryTest::deal).get();
+        registry.submit("table-1", session -> session).get();
+        registry.submit("table-3", GameRegistryTest::deal).get();
+
+        assertEquals(2, registry.getLiveCount());
+        assertEquals(1, registry.getColdCount());
+        assertEquals(1, registry.getDemotions());
+
+        clock.addAndGet(100);
+        registry.sweep().get();
+        assertEquals(0, registry.getColdCount());
+        assertEquals(1, registry.getExpirations());
+
+        GameSession restarted = registry.submit("table-2", session -> session).get();
+        assertNull(restarted.getGame().getGameStatus());
+        assertEquals(0, registry.getRehydrations());
+        registry.shutdown();
+    }
+
+    // deals a new round at a session's table, the way GameController does, and returns its packed state
+    /*
+    Expected: a session made around a game partway through PLAY (as when it is rehydrated) scores the next card from
+        the current count only. K and Q were played before the count started again, then two 5s, so a third 5 makes
+        fifteen and three of a kind (8 points), and the count is 10, not 30.
+     */
+    @Test
+    void rehydratedSessionRebuildsPegging() {
+        Game game = Game.of();
+        game.setUpDeal();
+        game.setGameStatus(Game.GameStatus.PLAY);
+        for (Card card : new Card[]{Card.of(13, 0), Card.of(12, 1)}) {
+            game.addCardToPlayedCards(card);
+            game.addToRunningSum(card.getScoringValue());
+        }
+        game.resetRunningSum();
+        for (Card card : new Card[]{Card.of(5, 0), Card.of(5, 1)}) {
+            game.addCardToPlayedCards(card);
+            game.addToRunningSum(card.getScoringValue());
+        }
+
+        PeggingState pegging = GameSession.of("table-1", game).getPegging();
+        assertEquals(2, pegging.size());
+        assertEquals(10, pegging.getSum());
+        assertEquals(8, pegging.pointsFor(5));
+        assertEquals(0, GameSession.of("table-2", Game.of()).getPegging().size());
+    }
+
+    private static PackedState deal(GameSession session) {
+        Game game = session.getGame();
+        game.setCurrentDealerA();
+        game.setCurrentPlayerB();
+        game.setUpDeal();
+        game.setGameStatus(Game.GameStatus.DEAL);
+        for (int i = 0; i < 6; i++) {
+            game.dealCard(game.getPlayerA());
+            game.dealCard(game.getPlayerB());
+        }
+        session.getCardLocations().rebuild(game);
+        return PackedState.of(game);
+    }
+}
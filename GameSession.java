@@ -0,0 +1,186 @@
+package com.demo.example;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+This class is one table in the GameRegistry: a game, and where each of its cards is.
+
+A GameSession is only ever touched from its shard's thread (see GameRegistry), so it needs no locking. A session
+that sits unused is demoted to a PackedState by GameRegistry and comes back as a new GameSession.
+
+Data:
+    - id, the game ID the client sent
+    - game, the Game being played. Replaced when a new game is started at the same table.
+    - cardLocations, kept up to date by GameController on every deal, discard, play and show
+    - pegging, the cards played since the count last started from 0, which GameController scores each play with
+    - lastAccess, when an action last ran on this session (GameRegistry's clock, in nanoseconds)
+    - version, which changes every time the game changes. Versions come from one counter shared by every session, so
+        a version is never reused, even by a session that was demoted and rehydrated.
+    - state and json, the GameStateResponse sent to the frontend and its JSON, kept for the version it was written at
+    - the last few states sent, by version, so a client that has one of them can be sent only what changed
+
+Relies upon:
+    - Game
+    - CardLocations
+    - PeggingState, to score the PLAY stage
+    - PackedState, for games that come back from being demoted
+    - GameStateResponse, for the state sent to the frontend
+ */
+
+public class GameSession {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    // states kept for deltas
+    private static final int HISTORY = 8;
+
+    private final String id;
+    private Game game;
+    private final CardLocations cardLocations;
+    private final PeggingState pegging;
+    private long lastAccess;
+    private long version;
+    private final GameStateResponse state = GameStateResponse.of();
+    private String json;
+    private long jsonVersion;
+    private GameStateResponse[] history;
+    private final long[] historyVersions = new long[HISTORY];
+    private int historyNext;
+
+    /*
+    Constructor.
+     */
+    private GameSession(String id, Game game) {
+        this.id = id;
+        this.game = game;
+        this.cardLocations = CardLocations.of();
+        this.pegging = PeggingState.of();
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    /*
+    Factory method. Creates a session for a game ID with a new, not started Game.
+     */
+    public static GameSession of(String id) {
+        return new GameSession(id, Game.of());
+    }
+
+    /*
+    Factory method. Creates a session for a game ID around an existing Game, such as one rehydrated from a
+    PackedState, with its card locations and pegging rebuilt.
+     */
+    public static GameSession of(String id, Game game) {
+        GameSession session = new GameSession(id, game);
+        session.cardLocations.rebuild(game);
+        session.rebuildPegging();
+        return session;
+    }
+
+    /*
+    Rebuilds pegging from the game: the cards of the current count are the last cards played whose scoring values
+    add up to the running sum.
+     */
+    private void rebuildPegging() {
+        pegging.reset();
+        ArrayList<Card> playedCards = game.getPlayedCards();
+        if (playedCards == null) {
+            return;
+        }
+
+        int first = playedCards.size();
+        int sum = 0;
+        while (first > 0 && sum < game.getRunningSum()) {
+            sum += playedCards.get(--first).getScoringValue();
+        }
+        for (int i = first; i < playedCards.size(); i++) {
+            pegging.addCard(playedCards.get(i));
+        }
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public Game getGame() {
+        return this.game;
+    }
+
+    // starts a new game at this table. The caller rebuilds cardLocations once it is dealt.
+    public void setGame(Game game) {
+        this.game = game;
+        changed();
+    }
+
+    public CardLocations getCardLocations() {
+        return this.cardLocations;
+    }
+
+    public PeggingState getPegging() {
+        return this.pegging;
+    }
+
+    public long getLastAccess() {
+        return this.lastAccess;
+    }
+
+    void touch(long now) {
+        this.lastAccess = now;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /*
+    Records that the game has changed, so the JSON written for the previous version isn't sent again.
+     */
+    public void changed() {
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    public GameStateResponse getState() {
+        return this.state;
+    }
+
+    /*
+    Returns the JSON written for the current version, or null if the game has changed since (or none was written).
+     */
+    public String getJson() {
+        return jsonVersion == version ? json : null;
+    }
+
+    /*
+    Keeps the JSON written for the current version, and a copy of state (which it was written from) for deltas.
+     */
+    public void setJson(String json) {
+        this.json = json;
+        this.jsonVersion = version;
+
+        if (history == null) {
+            history = new GameStateResponse[HISTORY];
+        }
+        if (history[historyNext] == null) {
+            history[historyNext] = GameStateResponse.of();
+        }
+        history[historyNext].copyFrom(state);
+        historyVersions[historyNext] = version;
+        historyNext = (historyNext + 1) % HISTORY;
+    }
+
+    /*
+    Returns the state that was sent at version, or null if it is not one of the last few states sent.
+     */
+    public GameStateResponse getSentState(long version) {
+        if (history == null) {
+            return null;
+        }
+        for (int i = 0; i < HISTORY; i++) {
+            if (history[i] != null && historyVersions[i] == version) {
+                return history[i];
+            }
+        }
+        return null;
+    }
+
+}
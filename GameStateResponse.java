@@ -0,0 +1,279 @@
+package com.demo.example;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/*
+This class is the game state GameController sends to the frontend after every action.
+
+Each GameSession keeps one GameStateResponse and refills it from its Game with update, so sending the state doesn't
+build a HashMap or an int[2] per card. Hands are kept as card values and suits in small int arrays, and Serializer
+writes them straight to the JSON generator.
+
+A Delta writes only the fields that differ from an earlier state, for clients that already have that state.
+
+JSON (same keys and values the frontend has always read):
+    - gameState: the GameStatus name, or null
+    - player1Hand, player2Hand: [[value, suit], ...] in hand order (suits as in Card.getSuitAsInt), or null
+    - player1Points, player2Points
+    - Player1Won, Player2Won
+    - Player1HasLegalCards, Player2HasLegalCards
+    - RunningSum
+
+Relies upon:
+    - Game, Player, Hand, Board and Card, to read the state
+ */
+
+@JsonSerialize(using = GameStateResponse.Serializer.class)
+public final class GameStateResponse {
+
+    private static final int NO_HAND = -1;
+
+    private Game.GameStatus gameState;
+    private int[] player1Hand = new int[DiscardOptimizer.DEALT_CARDS];
+    private int player1HandSize = NO_HAND;
+    private int[] player2Hand = new int[DiscardOptimizer.DEALT_CARDS];
+    private int player2HandSize = NO_HAND;
+    private int player1Points;
+    private int player2Points;
+    private boolean player1Won;
+    private boolean player2Won;
+    private boolean player1HasLegalCards;
+    private boolean player2HasLegalCards;
+    private int runningSum;
+
+    /*
+    Constructor.
+     */
+    private GameStateResponse() {
+    }
+
+    /*
+    Factory method. Creates an empty response, to be filled with update.
+     */
+    public static GameStateResponse of() {
+        return new GameStateResponse();
+    }
+
+    /*
+    Refills this response from game. Both players' hands must exist (the game has been dealt).
+     */
+    public void update(Game game) {
+        gameState = game.getGameStatus();
+        player1HandSize = copyHand(game.getPlayerA().getHand(), 1);
+        player2HandSize = copyHand(game.getPlayerB().getHand(), 2);
+        player1Points = game.getBoard().getPlayerAPoints();
+        player2Points = game.getBoard().getPlayerBPoints();
+        player1Won = game.getBoard().didPlayerAWin();
+        player2Won = game.getBoard().didPlayerBWin();
+        player1HasLegalCards = game.hasLegalCard(game.getPlayerA(), game.getRunningSum());
+        player2HasLegalCards = game.hasLegalCard(game.getPlayerB(), game.getRunningSum());
+        runningSum = game.getRunningSum();
+    }
+
+    // copies a hand's cards (value << 2 | suit) into player's array, growing it if needed. Returns the size.
+    private int copyHand(Hand hand, int player) {
+        if (hand == null) {
+            return NO_HAND;
+        }
+
+        ArrayList<Card> cards = hand.getCards();
+        int[] target = player == 1 ? player1Hand : player2Hand;
+        if (target.length < cards.size()) {
+            target = Arrays.copyOf(target, cards.size());
+            if (player == 1) {
+                player1Hand = target;
+            } else {
+                player2Hand = target;
+            }
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            target[i] = card.getValue() << 2 | card.getSuitAsInt();
+        }
+        return cards.size();
+    }
+
+    /*
+    Makes this response a copy of other, reusing this response's hand arrays unless other's hands are bigger.
+     */
+    public void copyFrom(GameStateResponse other) {
+        gameState = other.gameState;
+        player1Hand = copyCards(other.player1Hand, other.player1HandSize, player1Hand);
+        player1HandSize = other.player1HandSize;
+        player2Hand = copyCards(other.player2Hand, other.player2HandSize, player2Hand);
+        player2HandSize = other.player2HandSize;
+        player1Points = other.player1Points;
+        player2Points = other.player2Points;
+        player1Won = other.player1Won;
+        player2Won = other.player2Won;
+        player1HasLegalCards = other.player1HasLegalCards;
+        player2HasLegalCards = other.player2HasLegalCards;
+        runningSum = other.runningSum;
+    }
+
+    // copies size cards into target, or into a new array if target is too small. Returns the array copied into.
+    private static int[] copyCards(int[] cards, int size, int[] target) {
+        if (size == NO_HAND) {
+            return target;
+        }
+        if (target.length < size) {
+            target = new int[cards.length];
+        }
+        System.arraycopy(cards, 0, target, 0, size);
+        return target;
+    }
+
+    public Game.GameStatus getGameState() {
+        return this.gameState;
+    }
+
+    public int getPlayer1Points() {
+        return this.player1Points;
+    }
+
+    public int getPlayer2Points() {
+        return this.player2Points;
+    }
+
+    public int getRunningSum() {
+        return this.runningSum;
+    }
+
+    /*
+    Writes a GameStateResponse field by field, in the JSON layout above.
+     */
+    public static final class Serializer extends StdSerializer<GameStateResponse> {
+
+        private static final long serialVersionUID = 1L;
+
+        public Serializer() {
+            super(GameStateResponse.class);
+        }
+
+        @Override
+        public void serialize(GameStateResponse state, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject();
+            writeFields(generator, state, null);
+            generator.writeEndObject();
+        }
+
+        /*
+        Writes the fields of state that differ from previous, or every field if previous is null.
+         */
+        static void writeFields(JsonGenerator generator, GameStateResponse state, GameStateResponse previous)
+                throws IOException {
+            boolean all = previous == null;
+            if (all || state.gameState != previous.gameState) {
+                if (state.gameState == null) {
+                    generator.writeNullField("gameState");
+                } else {
+                    generator.writeStringField("gameState", state.gameState.name());
+                }
+            }
+            if (all || !sameHand(state.player1Hand, state.player1HandSize, previous.player1Hand,
+                    previous.player1HandSize)) {
+                writeHand(generator, "player1Hand", state.player1Hand, state.player1HandSize);
+            }
+            if (all || !sameHand(state.player2Hand, state.player2HandSize, previous.player2Hand,
+                    previous.player2HandSize)) {
+                writeHand(generator, "player2Hand", state.player2Hand, state.player2HandSize);
+            }
+            if (all || state.player1Points != previous.player1Points) {
+                generator.writeNumberField("player1Points", state.player1Points);
+            }
+            if (all || state.player2Points != previous.player2Points) {
+                generator.writeNumberField("player2Points", state.player2Points);
+            }
+            if (all || state.player1Won != previous.player1Won) {
+                generator.writeBooleanField("Player1Won", state.player1Won);
+            }
+            if (all || state.player2Won != previous.player2Won) {
+                generator.writeBooleanField("Player2Won", state.player2Won);
+            }
+            if (all || state.player1HasLegalCards != previous.player1HasLegalCards) {
+                generator.writeBooleanField("Player1HasLegalCards", state.player1HasLegalCards);
+            }
+            if (all || state.player2HasLegalCards != previous.player2HasLegalCards) {
+                generator.writeBooleanField("Player2HasLegalCards", state.player2HasLegalCards);
+            }
+            if (all || state.runningSum != previous.runningSum) {
+                generator.writeNumberField("RunningSum", state.runningSum);
+            }
+        }
+
+        private static boolean sameHand(int[] cards, int size, int[] otherCards, int otherSize) {
+            return size == otherSize && (size == NO_HAND || Arrays.equals(cards, 0, size, otherCards, 0, size));
+        }
+
+        private static void writeHand(JsonGenerator generator, String name, int[] cards, int size)
+                throws IOException {
+            generator.writeFieldName(name);
+            if (size == NO_HAND) {
+                generator.writeNull();
+                return;
+            }
+            generator.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                generator.writeStartArray();
+                generator.writeNumber(cards[i] >>> 2);
+                generator.writeNumber(cards[i] & 3);
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /*
+    The fields of a state that changed since an earlier state, with the version of the state.
+
+    JSON: version, full (true if there was no earlier state, so every field is written), then the changed fields with
+    the same keys as a GameStateResponse.
+     */
+    @JsonSerialize(using = Delta.Serializer.class)
+    public static final class Delta {
+        private final GameStateResponse current;
+        private final GameStateResponse previous;
+        private final long version;
+
+        private Delta(GameStateResponse current, GameStateResponse previous, long version) {
+            this.current = current;
+            this.previous = previous;
+            this.version = version;
+        }
+
+        /*
+        Factory method. previous is the state the client has, or null to send every field.
+         */
+        public static Delta of(GameStateResponse current, GameStateResponse previous, long version) {
+            return new Delta(current, previous, version);
+        }
+
+        public static final class Serializer extends StdSerializer<Delta> {
+
+            private static final long serialVersionUID = 1L;
+
+            public Serializer() {
+                super(Delta.class);
+            }
+
+            @Override
+            public void serialize(Delta delta, JsonGenerator generator, SerializerProvider provider)
+                    throws IOException {
+                generator.writeStartObject();
+                generator.writeNumberField("version", delta.version);
+                generator.writeBooleanField("full", delta.previous == null);
+                GameStateResponse.Serializer.writeFields(generator, delta.current, delta.previous);
+                generator.writeEndObject();
+            }
+        }
+    }
+
+}
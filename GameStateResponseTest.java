@@ -0,0 +1,171 @@
+package com.demo.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateResponseTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /*
+    Expected: the JSON written from a GameStateResponse has exactly the keys and values of the HashMap the controller
+        used to build, for a dealt game and for the same game partway through PLAY with points on the board.
+     */
+    @Test
+    void sameJsonAsMap() throws Exception {
+        Game game = Game.of();
+        game.setCurrentDealerA();
+        game.setCurrentPlayerB();
+        game.setUpDeal();
+        game.setGameStatus(Game.GameStatus.DEAL);
+        for (int i = 0; i < 6; i++) {
+            game.dealCard(game.getPlayerA());
+            game.dealCard(game.getPlayerB());
+        }
+
+        GameStateResponse state = GameStateResponse.of();
+        state.update(game);
+        assertEquals(asMap(game), MAPPER.readTree(MAPPER.writeValueAsString(state)));
+
+        Card played = game.getPlayerB().getHand().getCards().get(0);
+        game.getPlayerB().getHand().removeCardFromHand(played);
+        game.addToRunningSum(played.getScoringValue());
+        game.getBoard().addToPlayerAPoints(7);
+        game.getBoard().addToPlayerBPoints(125);
+        game.setGameStatus(Game.GameStatus.PLAY);
+
+        state.update(game);
+        JsonNode json = MAPPER.readTree(MAPPER.writeValueAsString(state));
+        assertEquals(asMap(game), json);
+        assertEquals(5, json.get("player2Hand").size());
+        assertTrue(json.get("Player2Won").asBoolean());
+    }
+
+    /*
+    Expected: a session keeps the JSON for its current version only; any change hands out a new, never used version.
+     */
+    @Test
+    void jsonCachedPerVersion() {
+        GameSession session = GameSession.of("table-1");
+        GameSession other = GameSession.of("table-2");
+        assertNull(session.getJson());
+
+        session.setJson("{}");
+        assertEquals("{}", session.getJson());
+
+        long version = session.getVersion();
+        session.changed();
+        assertNull(session.getJson());
+        assertTrue(session.getVersion() > version);
+        assertNotEquals(other.getVersion(), session.getVersion());
+    }
+
+    /*
+    Expected: a Delta against an earlier state has the version, "full": false and only the fields that changed (here
+        player2Hand, player1Points and RunningSum); against no state it has every field and "full": true.
+     */
+    @Test
+    void deltaHasOnlyChangedFields() throws Exception {
+        Game game = dealtGame();
+        GameStateResponse before = GameStateResponse.of();
+        before.update(game);
+        GameStateResponse after = GameStateResponse.of();
+        after.copyFrom(before);
+
+        Card played = game.getPlayerB().getHand().getCards().get(0);
+        game.getPlayerB().getHand().removeCardFromHand(played);
+        game.addToRunningSum(played.getScoringValue());
+        game.getBoard().addToPlayerAPoints(2);
+        after.update(game);
+
+        JsonNode delta = MAPPER.readTree(MAPPER.writeValueAsString(GameStateResponse.Delta.of(after, before, 42)));
+        assertEquals(42, delta.get("version").asLong());
+        assertFalse(delta.get("full").asBoolean());
+        assertEquals(5, delta.size());
+        assertEquals(5, delta.get("player2Hand").size());
+        assertEquals(2, delta.get("player1Points").asInt());
+        assertEquals(played.getScoringValue(), delta.get("RunningSum").asInt());
+
+        JsonNode unchanged = MAPPER.readTree(MAPPER.writeValueAsString(GameStateResponse.Delta.of(after, after, 43)));
+        assertEquals(2, unchanged.size());
+
+        JsonNode full = MAPPER.readTree(MAPPER.writeValueAsString(GameStateResponse.Delta.of(after, null, 44)));
+        assertTrue(full.get("full").asBoolean());
+        JsonNode fields = MAPPER.readTree(MAPPER.writeValueAsString(after));
+        assertEquals(fields.size() + 2, full.size());
+        fields.fieldNames().forEachRemaining(name -> assertEquals(fields.get(name), full.get(name)));
+    }
+
+    /*
+    Expected: a session remembers the state it sent at each of its last 8 versions, copied so later updates don't
+        change it, and forgets older ones. Once its 8 copies exist, remembering more states allocates nothing.
+     */
+    @Test
+    void sentStatesKeptByVersion() {
+        GameSession session = GameSession.of("table-1", dealtGame());
+        session.getState().update(session.getGame());
+        session.setJson("{}");
+        long first = session.getVersion();
+
+        session.changed();
+        session.getGame().getBoard().addToPlayerAPoints(3);
+        session.getState().update(session.getGame());
+        session.setJson("{}");
+
+        assertEquals(0, session.getSentState(first).getPlayer1Points());
+        assertEquals(3, session.getSentState(session.getVersion()).getPlayer1Points());
+        assertNull(session.getSentState(session.getVersion() + 1));
+
+        for (int i = 0; i < 7; i++) {
+            session.changed();
+            session.setJson("{}");
+        }
+        assertNull(session.getSentState(first));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1000; i++) {
+            session.changed();
+            session.setJson("{}");
+        }
+        assertTrue(threads.getThreadAllocatedBytes(thread) - before < 1024, "setJson allocated");
+    }
+
+    // a game dealt six cards each, as after GET /current-game
+    private static Game dealtGame() {
+        Game game = Game.of();
+        game.setCurrentDealerA();
+        game.setCurrentPlayerB();
+        game.setUpDeal();
+        game.setGameStatus(Game.GameStatus.DEAL);
+        for (int i = 0; i < 6; i++) {
+            game.dealCard(game.getPlayerA());
+            game.dealCard(game.getPlayerB());
+        }
+        return game;
+    }
+
+    // the state the way the controller used to put it together
+    private static JsonNode asMap(Game game) {
+        Map<String, Object> gameInfo = new HashMap<>();
+        gameInfo.put("gameState", game.getGameStatus());
+        gameInfo.put("player1Hand", game.getPlayerA().getHand().getHandAsIntArray());
+        gameInfo.put("player2Hand", game.getPlayerB().getHand().getHandAsIntArray());
+        gameInfo.put("player1Points", game.getBoard().getPlayerAPoints());
+        gameInfo.put("player2Points", game.getBoard().getPlayerBPoints());
+        gameInfo.put("Player1Won", game.getBoard().didPlayerAWin());
+        gameInfo.put("Player2Won", game.getBoard().didPlayerBWin());
+        gameInfo.put("Player1HasLegalCards", game.hasLegalCard(game.getPlayerA(), game.getRunningSum()));
+        gameInfo.put("Player2HasLegalCards", game.hasLegalCard(game.getPlayerB(), game.getRunningSum()));
+        gameInfo.put("RunningSum", game.getRunningSum());
+        return MAPPER.valueToTree(gameInfo);
+    }
+}
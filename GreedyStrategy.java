@@ -0,0 +1,97 @@
+package com.demo.example;
+
+/*
+This class is a Strategy that makes the best choice it can see right now:
+    - DEAL: the discard with the best expected net points (DiscardOptimizer, or a DiscardTable if one is given)
+    - PLAY: the legal card that earns the most points immediately. Ties go to a card that doesn't leave the count at
+        exactly 5 or 21, where the opponent could make 15 or 31 with a 10, then to the highest card.
+
+It doesn't look ahead at what the opponent might play next.
+
+Relies upon:
+    - DiscardOptimizer or DiscardTable, for discards
+    - PeggingState, to score a card before playing it
+ */
+
+public class GreedyStrategy implements Strategy {
+
+    private final DiscardTable discardTable;
+
+    /*
+    Constructor. discardTable may be null, in which case discards are evaluated with DiscardOptimizer.
+     */
+    private GreedyStrategy(DiscardTable discardTable) {
+        this.discardTable = discardTable;
+    }
+
+    /*
+    Factory method. Returns a GreedyStrategy that evaluates discards with DiscardOptimizer.
+     */
+    public static GreedyStrategy of() {
+        return new GreedyStrategy(null);
+    }
+
+    /*
+    Factory method. Returns a GreedyStrategy that looks discards up in a DiscardTable.
+     */
+    public static GreedyStrategy of(DiscardTable discardTable) {
+        return new GreedyStrategy(discardTable);
+    }
+
+    /*
+    Discards the two cards with the best expected net points.
+
+    The 15 options are evaluated one after another on the calling thread rather than with DiscardOptimizer.evaluate,
+    because simulations already keep every core busy with one game per thread.
+     */
+    @Override
+    public long chooseDiscard(HeadlessGame game, int player) {
+        long dealt = game.getHand(player);
+        boolean dealer = game.isDealer(player);
+
+        if (discardTable != null) {
+            return discardTable.bestDiscardMask(dealt, dealer);
+        }
+
+        long bestDiscard = 0L;
+        double bestNet = Double.NEGATIVE_INFINITY;
+        for (int option = 0; option < DiscardOptimizer.OPTIONS; option++) {
+            long discard = DiscardOptimizer.discardOption(dealt, option);
+            double net = DiscardOptimizer.evaluateOption(dealt, discard, dealer).getNet();
+            if (net > bestNet) {
+                bestNet = net;
+                bestDiscard = discard;
+            }
+        }
+        return bestDiscard;
+    }
+
+    /*
+    Plays the legal card that earns the most points now.
+     */
+    @Override
+    public int choosePlay(HeadlessGame game, int player) {
+        PeggingState pegging = game.getPegging();
+
+        int bestCard = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (long legal = game.getLegalCards(player); legal != 0L; legal &= legal - 1) {
+            int ordinal = Long.numberOfTrailingZeros(legal);
+            int sum = pegging.getSum() + ScoringEngine.scoringValueOf(ordinal);
+
+            // points first, then staying off 5 and 21, then card value
+            int score = pegging.pointsFor(ScoringEngine.valueOf(ordinal)) * 64;
+            if (sum != 5 && sum != 21) {
+                score += 32;
+            }
+            score += ScoringEngine.valueOf(ordinal);
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestCard = ordinal;
+            }
+        }
+        return bestCard;
+    }
+
+}
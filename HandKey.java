@@ -0,0 +1,115 @@
+package com.demo.example;
+
+/*
+This class represents a hand and faceUpCard in a canonical, immutable form that can be used as a key in hash-based
+caches (unlike Hand, which has no hashCode and sorts its cards when compared).
+
+Only what affects the SHOW score is kept:
+    - the number of cards of each value (1-13) in the hand, 4 bits each, in the same place as the value's 4 cards in the
+        hand bitmask (so counting them is a bit count of each 4-bit group, done for all 13 at once)
+    - the faceUpCard's value, 4 bits
+    - the flush state, 2 bits: no flush, every hand card shares a suit, or every hand card and the faceUpCard share a suit
+
+Suits are otherwise dropped, so hands that only differ by swapping suits around get the same key whenever the flush
+state is the same. For example, (5 of Clubs, 5 of Hearts, Jack of Spades, King of Clubs) with a 2 of Diamonds as the
+faceUpCard has the same key as the same values in any other suits.
+
+Data: long key, the packed fields above. A key is never 0, as the faceUpCard's value is at least 1.
+
+Responsibilities:
+    - Create a key from a Hand and faceUpCard, or from a hand bitmask and faceUpCard ordinal
+    - Pack a hand bitmask and faceUpCard ordinal into the long key without creating a HandKey (see ScoreCache)
+    - Compare keys and return a hash code
+
+Relies upon:
+    - ScoringEngine, for ordinals and bitmasks
+ */
+
+public final class HandKey {
+
+    private static final int FACE_UP_SHIFT = 52;
+    private static final int FLUSH_SHIFT = 56;
+
+    private static final int NO_FLUSH = 0;
+    private static final int HAND_FLUSH = 1;
+    private static final int FULL_FLUSH = 2;
+
+    private final long key;
+
+    /*
+    Constructor. key holds the packed fields described above.
+     */
+    private HandKey(long key) {
+        this.key = key;
+    }
+
+    /*
+    Factory method. Returns the key of a Hand and faceUpCard.
+     */
+    public static HandKey of(Hand hand, Card faceUpCard) {
+        return of(ScoringEngine.handMask(hand.getCards()), ScoringEngine.ordinal(faceUpCard));
+    }
+
+    /*
+    Factory method. Returns the key of a hand bitmask and faceUpCard ordinal.
+     */
+    public static HandKey of(long handMask, int faceUpOrdinal) {
+        return new HandKey(pack(handMask, faceUpOrdinal));
+    }
+
+    /*
+    Returns the packed key of a hand bitmask and faceUpCard ordinal.
+
+    The value counts are a bit count of every 4-bit group of the bitmask at once: first each pair of bits is replaced
+    by its count, then each pair of pairs.
+     */
+    public static long pack(long handMask, int faceUpOrdinal) {
+        long pairs = handMask - ((handMask >>> 1) & 0x5555555555555555L);
+        long counts = (pairs & 0x3333333333333333L) + ((pairs >>> 2) & 0x3333333333333333L);
+
+        return counts
+                | (long) ScoringEngine.valueOf(faceUpOrdinal) << FACE_UP_SHIFT
+                | (long) flushState(handMask, faceUpOrdinal) << FLUSH_SHIFT;
+    }
+
+    /*
+    Returns NO_FLUSH, HAND_FLUSH or FULL_FLUSH, the same way Hand counts flushes.
+     */
+    private static int flushState(long handMask, int faceUpOrdinal) {
+        int flushPoints = ScoringEngine.countFlushPoints(handMask, faceUpOrdinal);
+
+        if (flushPoints == 0) {
+            return NO_FLUSH;
+        } else if (flushPoints > Long.bitCount(handMask)) {
+            return FULL_FLUSH;
+        }
+        return HAND_FLUSH;
+    }
+
+    // returns the packed key
+    public long getKey() {
+        return this.key;
+    }
+
+    /*
+    Returns true if both keys have the same packed fields.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof HandKey) {
+            return this.key == ((HandKey) other).key;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public String toString() {
+        return "HandKey(" + Long.toHexString(key) + ")";
+    }
+
+}
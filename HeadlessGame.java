@@ -0,0 +1,471 @@
+package com.demo.example;
+
+/*
+This class plays a complete game of cribbage to 121 without Spring, HTTP or any Card objects, so strategies can be
+compared over millions of games.
+
+It follows the same stages as Game (DEAL, PLAY, SHOW, OVER) and scores with the same rules, using bitmasks of ordinals
+(see ScoringEngine) instead of Players, Hands and ArrayLists:
+    - DEAL: 6 cards to each player and a faceUpCard (the starter), laid out by a DealSequence. Each player puts 2 cards
+        in the dealer's crib.
+    - PLAY: the player who isn't the dealer (the pone) leads. Points for each card come from PeggingState (fifteens,
+        pairs, runs, 31). If neither player can play without going over 31, the player who played last gets 1 point
+        for the go and the count starts again from 0, led by the other player if they still have cards.
+    - SHOW: the pone's hand, then the dealer's hand, then the dealer's crib, each scored by ScoringEngine. The crib
+        only scores a flush when the faceUpCard shares its suit (calculateCribPoints).
+    - The game ends as soon as a player reaches 121, even in the middle of PLAY or SHOW.
+
+Data:
+    - long[] hands: cards each player still holds during PLAY
+    - long[] kept, discarded: the 4 cards each player kept and the 2 they put in the crib
+    - long crib, played: the dealer's crib, and the cards played so far this round
+    - int[] playOrder: ordinals of the cards played this round, in the order they were played
+    - int starter: ordinal of the faceUpCard
+    - int[] scores, int[][] points: each player's score, and the points they earned in each phase (PEGGING, HAND, CRIB)
+    - PeggingState pegging: the cards played since the count last started from 0
+    - long[] undoPegging, int[] undoState: the undo stack, one entry per card played this round
+
+Make/unmake:
+    - play() pushes everything it is about to change onto the undo stack: the PeggingState (including a count that
+        starts again after 31 or a go), the current and last player, the points earned, the status and the winner.
+    - undoPlay() pops the last entry and puts the game back exactly as it was, hand, score and all.
+    - Neither allocates, so a search can walk millions of positions on one game instead of copying it at every node.
+
+Responsibilities:
+    - Deal each round, take discards, take plays, and score the show
+    - Return the legal cards a player can play
+    - Play a whole game with two Strategy objects
+    - Copy a game in the middle of a round, and replace a player's hidden cards, for searching strategies
+    - Take back cards played this round, latest first
+
+Relies upon:
+    - DealSequence and ShuffledDeck, for reproducible deals
+    - PeggingState and ScoringEngine, to score PLAY and SHOW
+    - Game.GameStatus, for the stage of the game
+ */
+
+public class HeadlessGame {
+
+    public static final int PLAYER_A = 0;
+    public static final int PLAYER_B = 1;
+
+    // phases points are earned in, for getPoints
+    public static final int PEGGING = 0;
+    public static final int HAND = 1;
+    public static final int CRIB = 2;
+    public static final int PHASES = 3;
+
+    public static final int WINNING_SCORE = 121;
+    public static final int MAX_COUNT = 31;
+
+    // CARDS_UP_TO[limit] holds every card with a scoring value of at most limit (0-31)
+    private static final long[] CARDS_UP_TO = cardsUpTo();
+
+    private static final Game.GameStatus[] STATUSES = Game.GameStatus.values();
+
+    private final DealSequence deals;
+    private final ShuffledDeck deck;
+    private final PeggingState pegging;
+
+    private final long[] hands;
+    private final long[] kept;
+    private final long[] discarded;
+    private final int[] scores;
+    private final int[][] points;
+    private long crib;
+    private long played;
+    private final int[] playOrder;
+    private int playCount;
+    private boolean shown;
+    private final long[] undoPegging;
+    private final int[] undoState;
+    private int starter;
+    private int dealer;
+    private int currentPlayer;
+    private int lastPlayer;
+    private int winner;
+    private int rounds;
+    private Game.GameStatus gameStatus;
+
+    /*
+    Constructor. The first dealer is chosen by the DealSequence.
+     */
+    private HeadlessGame(DealSequence deals) {
+        this.deals = deals;
+        this.deck = ShuffledDeck.of();
+        this.pegging = PeggingState.of();
+        this.hands = new long[2];
+        this.kept = new long[2];
+        this.discarded = new long[2];
+        this.scores = new int[2];
+        this.points = new int[2][PHASES];
+        this.playOrder = new int[2 * DiscardOptimizer.KEPT_CARDS];
+        this.undoPegging = new long[playOrder.length];
+        this.undoState = new int[playOrder.length];
+        this.starter = -1;
+        this.dealer = deals.isFirstDealerA() ? PLAYER_A : PLAYER_B;
+        this.lastPlayer = -1;
+        this.winner = -1;
+        this.gameStatus = Game.GameStatus.NOTSTARTED;
+    }
+
+    /*
+    Copy constructor. Shares the DealSequence and ShuffledDeck, copies everything else.
+     */
+    private HeadlessGame(HeadlessGame other) {
+        this.deals = other.deals;
+        this.deck = other.deck;
+        this.pegging = other.pegging.copy();
+        this.hands = other.hands.clone();
+        this.kept = other.kept.clone();
+        this.discarded = other.discarded.clone();
+        this.scores = other.scores.clone();
+        this.points = new int[][]{other.points[PLAYER_A].clone(), other.points[PLAYER_B].clone()};
+        this.crib = other.crib;
+        this.played = other.played;
+        this.playOrder = other.playOrder.clone();
+        this.playCount = other.playCount;
+        this.shown = other.shown;
+        this.undoPegging = other.undoPegging.clone();
+        this.undoState = other.undoState.clone();
+        this.starter = other.starter;
+        this.dealer = other.dealer;
+        this.currentPlayer = other.currentPlayer;
+        this.lastPlayer = other.lastPlayer;
+        this.winner = other.winner;
+        this.rounds = other.rounds;
+        this.gameStatus = other.gameStatus;
+    }
+
+    /*
+    Factory method. Returns a new game, not yet dealt, that takes its deals from a DealSequence.
+     */
+    public static HeadlessGame of(DealSequence deals) {
+        return new HeadlessGame(deals);
+    }
+
+    /*
+    Returns a copy of this game that can be played forward without changing this one. Meant for searching the rest
+    of a round: the copy shares this game's DealSequence, so it must not deal new rounds.
+     */
+    public HeadlessGame copy() {
+        return new HeadlessGame(this);
+    }
+
+    /*
+    Plays a whole game between two strategies and returns the winner (PLAYER_A or PLAYER_B).
+     */
+    public int playGame(Strategy strategyA, Strategy strategyB) {
+        Strategy[] strategies = {strategyA, strategyB};
+
+        while (!isOver()) {
+            dealRound();
+            discard(PLAYER_A, strategies[PLAYER_A].chooseDiscard(this, PLAYER_A));
+            discard(PLAYER_B, strategies[PLAYER_B].chooseDiscard(this, PLAYER_B));
+
+            while (gameStatus == Game.GameStatus.PLAY) {
+                play(strategies[currentPlayer].choosePlay(this, currentPlayer));
+            }
+
+            if (gameStatus == Game.GameStatus.SHOW) {
+                showScore();
+            }
+        }
+
+        return winner;
+    }
+
+    /*
+    Deals the next round: the faceUpCard first, then 6 cards to each player in turn.
+    The dealer changes every round after the first.
+     */
+    public void dealRound() {
+        if (gameStatus == Game.GameStatus.OVER) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (rounds > 0) {
+            dealer = 1 - dealer;
+        }
+        rounds++;
+
+        deals.nextDeal(deck);
+        starter = deck.drawOrdinal();
+        hands[PLAYER_A] = 0L;
+        hands[PLAYER_B] = 0L;
+        for (int i = 0; i < DealSequence.CARDS_PER_HAND; i++) {
+            hands[PLAYER_A] |= 1L << deck.drawOrdinal();
+            hands[PLAYER_B] |= 1L << deck.drawOrdinal();
+        }
+
+        kept[PLAYER_A] = 0L;
+        kept[PLAYER_B] = 0L;
+        discarded[PLAYER_A] = 0L;
+        discarded[PLAYER_B] = 0L;
+        crib = 0L;
+        played = 0L;
+        playCount = 0;
+        shown = false;
+        pegging.reset();
+        lastPlayer = -1;
+        currentPlayer = 1 - dealer;
+        gameStatus = Game.GameStatus.DEAL;
+    }
+
+    /*
+    Puts two cards from a player's hand in the dealer's crib. Once both players have discarded, PLAY starts.
+    Throws IllegalArgumentException if cards isn't two cards from the player's hand.
+     */
+    public void discard(int player, long cards) {
+        if (gameStatus != Game.GameStatus.DEAL || discarded[player] != 0L) {
+            throw new IllegalStateException("Player can't discard now");
+        }
+        if (Long.bitCount(cards) != 2 || (cards & ~hands[player]) != 0L) {
+            throw new IllegalArgumentException("Must discard two cards from the hand");
+        }
+
+        hands[player] &= ~cards;
+        kept[player] = hands[player];
+        discarded[player] = cards;
+        crib |= cards;
+
+        if (discarded[1 - player] != 0L) {
+            gameStatus = Game.GameStatus.PLAY;
+        }
+    }
+
+    /*
+    Plays a card (by ordinal) for the current player and returns the points it earned, including a point for the go.
+    Throws IllegalArgumentException if the card isn't one of the current player's legal cards.
+     */
+    public int play(int ordinal) {
+        if (gameStatus != Game.GameStatus.PLAY) {
+            throw new IllegalStateException("Cards can only be played during PLAY");
+        }
+        int player = currentPlayer;
+        long card = 1L << ordinal;
+        if ((getLegalCards(player) & card) == 0L) {
+            throw new IllegalArgumentException("Card can't be played");
+        }
+
+        // everything needed to take the card back, except the points, which are added below
+        undoPegging[playCount] = pegging.mark();
+        undoState[playCount] = player | (lastPlayer + 1) << 1 | (winner + 1) << 3 | gameStatus.ordinal() << 5;
+
+        hands[player] &= ~card;
+        played |= card;
+        playOrder[playCount++] = ordinal;
+        lastPlayer = player;
+        int earned = pegging.addCard(ScoringEngine.valueOf(ordinal));
+
+        int opponent = 1 - player;
+        if (pegging.getSum() == MAX_COUNT || (getLegalCards(player) | getLegalCards(opponent)) == 0L) {
+            // nobody can play: 1 point for the go, unless 31 was reached (already worth 2)
+            if (pegging.getSum() != MAX_COUNT) {
+                earned++;
+            }
+            pegging.startNewCount();
+            currentPlayer = hands[opponent] != 0L ? opponent : player;
+        } else {
+            currentPlayer = getLegalCards(opponent) != 0L ? opponent : player;
+        }
+
+        undoState[playCount - 1] |= earned << 8;
+        addPoints(player, PEGGING, earned);
+        if (gameStatus == Game.GameStatus.PLAY && (hands[PLAYER_A] | hands[PLAYER_B]) == 0L) {
+            gameStatus = Game.GameStatus.SHOW;
+        }
+        return earned;
+    }
+
+    /*
+    Takes back the last card played this round: returns it to its player's hand, takes away the points it earned, and
+    puts the count, the current player, the status and the winner back as they were before it was played.
+    Throws IllegalStateException if no card has been played this round, or the round's SHOW has been scored.
+     */
+    public void undoPlay() {
+        if (playCount == 0 || shown) {
+            throw new IllegalStateException("No card to take back");
+        }
+
+        playCount--;
+        int state = undoState[playCount];
+        int player = state & 1;
+        int earned = state >>> 8;
+        long card = 1L << playOrder[playCount];
+
+        hands[player] |= card;
+        played &= ~card;
+        pegging.restore(undoPegging[playCount]);
+        scores[player] -= earned;
+        points[player][PEGGING] -= earned;
+        currentPlayer = player;
+        lastPlayer = ((state >>> 1) & 3) - 1;
+        winner = ((state >>> 3) & 3) - 1;
+        gameStatus = STATUSES[(state >>> 5) & 7];
+    }
+
+    /*
+    Scores the SHOW: the pone's hand, then the dealer's hand, then the dealer's crib. Stops as soon as someone wins.
+     */
+    public void showScore() {
+        if (gameStatus != Game.GameStatus.SHOW) {
+            throw new IllegalStateException("Hands can only be shown after PLAY");
+        }
+        int pone = 1 - dealer;
+        shown = true;
+
+        addPoints(pone, HAND, ScoringEngine.calculatePoints(kept[pone], starter));
+        if (gameStatus == Game.GameStatus.SHOW) {
+            addPoints(dealer, HAND, ScoringEngine.calculatePoints(kept[dealer], starter));
+        }
+        if (gameStatus == Game.GameStatus.SHOW) {
+            addPoints(dealer, CRIB, ScoringEngine.calculateCribPoints(crib, starter));
+        }
+        if (gameStatus == Game.GameStatus.SHOW) {
+            gameStatus = Game.GameStatus.DEAL;
+            hands[PLAYER_A] = 0L;
+            hands[PLAYER_B] = 0L;
+        }
+    }
+
+    // adds points to a player's score and phase total, and ends the game if they reached 121
+    private void addPoints(int player, int phase, int earned) {
+        scores[player] += earned;
+        points[player][phase] += earned;
+        if (scores[player] >= WINNING_SCORE) {
+            winner = player;
+            gameStatus = Game.GameStatus.OVER;
+        }
+    }
+
+    /*
+    Returns the cards a player holds that can be played without taking the count over 31.
+     */
+    public long getLegalCards(int player) {
+        return legalCards(hands[player], pegging.getSum());
+    }
+
+    // returns the cards in a bitmask that can be played on a running sum without going over 31
+    static long legalCards(long cards, int runningSum) {
+        return cards & CARDS_UP_TO[MAX_COUNT - runningSum];
+    }
+
+    // returns the cards a player still holds (6 after the deal, 4 after discarding, fewer during PLAY)
+    public long getHand(int player) {
+        return this.hands[player];
+    }
+
+    /*
+    Replaces the cards a player still holds during PLAY with a guess of the same size. Used by searching strategies,
+    which can't see the opponent's cards and try many possible hands instead. Only use on a copy.
+     */
+    public void setHand(int player, long cards) {
+        if (Long.bitCount(cards) != Long.bitCount(hands[player])) {
+            throw new IllegalArgumentException("Hand must keep the same number of cards");
+        }
+        hands[player] = cards;
+    }
+
+    // returns the 4 cards a player kept for the SHOW
+    public long getKept(int player) {
+        return this.kept[player];
+    }
+
+    // returns the 2 cards a player put in the crib. Only the player who discarded them should look.
+    public long getDiscarded(int player) {
+        return this.discarded[player];
+    }
+
+    // returns the dealer's crib
+    public long getCrib() {
+        return this.crib;
+    }
+
+    // returns every card played so far this round
+    public long getPlayedCards() {
+        return this.played;
+    }
+
+    // returns the number of cards played this round
+    public int getPlayCount() {
+        return this.playCount;
+    }
+
+    // returns the ordinal of the card played at position index (0 for the lead) this round
+    public int getPlayedCard(int index) {
+        return this.playOrder[index];
+    }
+
+    // returns the ordinal of the faceUpCard, or -1 before the first deal. Strategies shouldn't use it before PLAY.
+    public int getStarter() {
+        return this.starter;
+    }
+
+    // returns the cards played since the count last started from 0
+    public PeggingState getPegging() {
+        return this.pegging;
+    }
+
+    // returns the running sum of the current count
+    public int getRunningSum() {
+        return this.pegging.getSum();
+    }
+
+    public int getDealer() {
+        return this.dealer;
+    }
+
+    public boolean isDealer(int player) {
+        return this.dealer == player;
+    }
+
+    public int getCurrentPlayer() {
+        return this.currentPlayer;
+    }
+
+    // returns the player who played the last card, or -1 if nobody has played this round
+    public int getLastPlayer() {
+        return this.lastPlayer;
+    }
+
+    public int getScore(int player) {
+        return this.scores[player];
+    }
+
+    // returns the points a player earned in a phase (PEGGING, HAND or CRIB) over the whole game
+    public int getPoints(int player, int phase) {
+        return this.points[player][phase];
+    }
+
+    // returns the winner (PLAYER_A or PLAYER_B), or -1 if the game isn't over
+    public int getWinner() {
+        return this.winner;
+    }
+
+    // returns the number of rounds dealt so far
+    public int getRounds() {
+        return this.rounds;
+    }
+
+    public Game.GameStatus getGameStatus() {
+        return this.gameStatus;
+    }
+
+    public boolean isOver() {
+        return this.gameStatus == Game.GameStatus.OVER;
+    }
+
+    // builds CARDS_UP_TO
+    private static long[] cardsUpTo() {
+        long[] cards = new long[MAX_COUNT + 1];
+        for (int limit = 0; limit <= MAX_COUNT; limit++) {
+            for (int ordinal = 0; ordinal < ScoringEngine.CARDS_IN_DECK; ordinal++) {
+                if (ScoringEngine.scoringValueOf(ordinal) <= limit) {
+                    cards[limit] |= 1L << ordinal;
+                }
+            }
+        }
+        return cards;
+    }
+
+}
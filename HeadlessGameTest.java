@@ -0,0 +1,218 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessGameTest {
+
+    /*
+    Expected: a game between two random strategies ends with exactly one player at 121 or more, and each
+        player's score is the sum of their points in each phase.
+     */
+    @Test
+    void playsToTheEnd() {
+        for (long seed = 0; seed < 200; seed++) {
+            HeadlessGame game = HeadlessGame.of(DealSequence.of(seed));
+            int winner = game.playGame(RandomStrategy.of(seed), RandomStrategy.of(seed + 1));
+
+            assertTrue(game.isOver());
+            assertEquals(winner, game.getWinner());
+            assertTrue(game.getScore(winner) >= HeadlessGame.WINNING_SCORE);
+            assertTrue(game.getScore(1 - winner) < HeadlessGame.WINNING_SCORE);
+
+            for (int player = 0; player < 2; player++) {
+                int total = 0;
+                for (int phase = 0; phase < HeadlessGame.PHASES; phase++) {
+                    total += game.getPoints(player, phase);
+                }
+                assertEquals(game.getScore(player), total);
+            }
+        }
+    }
+
+    /*
+    Expected: the same seed and strategies play the same game.
+     */
+    @Test
+    void sameSeedSameGame() {
+        HeadlessGame first = HeadlessGame.of(DealSequence.of(99L));
+        HeadlessGame second = HeadlessGame.of(DealSequence.of(99L));
+        first.playGame(GreedyStrategy.of(), RandomStrategy.of(5L));
+        second.playGame(GreedyStrategy.of(), RandomStrategy.of(5L));
+
+        assertEquals(first.getScore(HeadlessGame.PLAYER_A), second.getScore(HeadlessGame.PLAYER_A));
+        assertEquals(first.getScore(HeadlessGame.PLAYER_B), second.getScore(HeadlessGame.PLAYER_B));
+        assertEquals(first.getRounds(), second.getRounds());
+    }
+
+    /*
+    Expected: one round goes DEAL -> PLAY -> SHOW, the pone leads, every card played is legal, and the
+        players can only discard two of their own cards or play their own legal cards.
+     */
+    @Test
+    void oneRound() {
+        HeadlessGame game = HeadlessGame.of(DealSequence.of(3L));
+        game.dealRound();
+        assertEquals(Game.GameStatus.DEAL, game.getGameStatus());
+        assertEquals(6, Long.bitCount(game.getHand(HeadlessGame.PLAYER_A)));
+
+        long handA = game.getHand(HeadlessGame.PLAYER_A);
+        long mixed = Long.lowestOneBit(handA) | Long.lowestOneBit(game.getHand(HeadlessGame.PLAYER_B));
+        assertThrows(IllegalArgumentException.class, () -> game.discard(HeadlessGame.PLAYER_A, mixed));
+
+        game.discard(HeadlessGame.PLAYER_A, DiscardOptimizer.discardOption(handA, 0));
+        game.discard(HeadlessGame.PLAYER_B, DiscardOptimizer.discardOption(game.getHand(HeadlessGame.PLAYER_B), 0));
+        assertEquals(Game.GameStatus.PLAY, game.getGameStatus());
+        assertEquals(4, Long.bitCount(game.getCrib()));
+        assertEquals(1 - game.getDealer(), game.getCurrentPlayer());
+
+        RandomStrategy strategy = RandomStrategy.of(3L);
+        while (game.getGameStatus() == Game.GameStatus.PLAY) {
+            int player = game.getCurrentPlayer();
+            long otherCards = game.getHand(1 - player);
+            if (otherCards != 0L) {
+                assertThrows(IllegalArgumentException.class, () -> game.play(Long.numberOfTrailingZeros(otherCards)));
+            }
+            game.play(strategy.choosePlay(game, player));
+            assertTrue(game.getRunningSum() <= HeadlessGame.MAX_COUNT);
+        }
+
+        assertEquals(8, Long.bitCount(game.getPlayedCards()));
+        if (!game.isOver()) {
+            game.showScore();
+            assertEquals(Game.GameStatus.DEAL, game.getGameStatus());
+        }
+    }
+
+    /*
+    Expected: when neither player can play, the player who played last gets 1 point for the go.
+        Over a whole round, every card earns the same points PeggingState gives it, plus one go point each time the
+        count starts again from 0 without reaching 31.
+     */
+    @Test
+    void goPoints() {
+        for (long seed = 0; seed < 100; seed++) {
+            HeadlessGame game = HeadlessGame.of(DealSequence.of(seed));
+            game.dealRound();
+            game.discard(HeadlessGame.PLAYER_A, DiscardOptimizer.discardOption(game.getHand(HeadlessGame.PLAYER_A), 0));
+            game.discard(HeadlessGame.PLAYER_B, DiscardOptimizer.discardOption(game.getHand(HeadlessGame.PLAYER_B), 0));
+
+            GreedyStrategy strategy = GreedyStrategy.of();
+            while (game.getGameStatus() == Game.GameStatus.PLAY) {
+                int ordinal = strategy.choosePlay(game, game.getCurrentPlayer());
+                int expected = game.getPegging().pointsFor(ScoringEngine.valueOf(ordinal));
+                int sumAfter = game.getRunningSum() + ScoringEngine.scoringValueOf(ordinal);
+
+                int earned = game.play(ordinal);
+                if (game.getRunningSum() == 0 && sumAfter != HeadlessGame.MAX_COUNT) {
+                    expected++;
+                }
+                assertEquals(expected, earned);
+            }
+        }
+    }
+
+    /*
+    Expected: undoPlay puts the game back exactly as it was before each card, through go points, counts starting
+        again after 31 or a go, the end of PLAY, and a win during PLAY.
+     */
+    @Test
+    void undoPlay() {
+        for (long seed = 0; seed < 300; seed++) {
+            HeadlessGame game = HeadlessGame.of(DealSequence.of(seed));
+            RandomStrategy strategy = RandomStrategy.of(seed);
+
+            while (!game.isOver()) {
+                game.dealRound();
+                game.discard(HeadlessGame.PLAYER_A, strategy.chooseDiscard(game, HeadlessGame.PLAYER_A));
+                game.discard(HeadlessGame.PLAYER_B, strategy.chooseDiscard(game, HeadlessGame.PLAYER_B));
+
+                // play the round, take every card back, then play the same cards again
+                String[] before = new String[8];
+                int[] cards = new int[8];
+                int plays = 0;
+                while (game.getGameStatus() == Game.GameStatus.PLAY) {
+                    before[plays] = describe(game);
+                    cards[plays] = strategy.choosePlay(game, game.getCurrentPlayer());
+                    game.play(cards[plays++]);
+                }
+                String after = describe(game);
+
+                for (int i = plays - 1; i >= 0; i--) {
+                    game.undoPlay();
+                    assertEquals(before[i], describe(game), "seed " + seed);
+                }
+                assertThrows(IllegalStateException.class, game::undoPlay);
+
+                for (int i = 0; i < plays; i++) {
+                    game.play(cards[i]);
+                }
+                assertEquals(after, describe(game), "seed " + seed);
+
+                if (game.getGameStatus() == Game.GameStatus.SHOW) {
+                    game.showScore();
+                    assertThrows(IllegalStateException.class, game::undoPlay);
+                }
+            }
+        }
+    }
+
+    /*
+    Expected: a crib of four cards of one suit, with a faceUpCard of another suit, scores no flush points, the same
+        as ScoringEngine.calculateCribPoints and 4 points less than the same cards would score as a hand.
+     */
+    @Test
+    void cribFlushNeedsTheFaceUpCard() {
+        for (long seed = 0; ; seed++) {
+            HeadlessGame game = HeadlessGame.of(DealSequence.of(seed));
+            game.dealRound();
+            int suit = (ScoringEngine.suitOf(game.getStarter()) + 1) % 4;
+            long suitCards = 0x1111111111111L << suit;
+            long fromA = game.getHand(HeadlessGame.PLAYER_A) & suitCards;
+            long fromB = game.getHand(HeadlessGame.PLAYER_B) & suitCards;
+            if (Long.bitCount(fromA) < 2 || Long.bitCount(fromB) < 2) {
+                continue;
+            }
+
+            game.discard(HeadlessGame.PLAYER_A, Long.lowestOneBit(fromA) | Long.highestOneBit(fromA));
+            game.discard(HeadlessGame.PLAYER_B, Long.lowestOneBit(fromB) | Long.highestOneBit(fromB));
+            GreedyStrategy strategy = GreedyStrategy.of();
+            while (game.getGameStatus() == Game.GameStatus.PLAY) {
+                game.play(strategy.choosePlay(game, game.getCurrentPlayer()));
+            }
+            game.showScore();
+
+            long crib = game.getCrib();
+            int dealer = game.getDealer();
+            assertEquals(ScoringEngine.calculateCribPoints(crib, game.getStarter()),
+                    game.getPoints(dealer, HeadlessGame.CRIB));
+            assertEquals(ScoringEngine.calculatePoints(crib, game.getStarter()) - 4,
+                    game.getPoints(dealer, HeadlessGame.CRIB));
+            return;
+        }
+    }
+
+    // returns everything play and undoPlay can change, as text
+    private static String describe(HeadlessGame game) {
+        StringBuilder output = new StringBuilder();
+        for (int player = 0; player < 2; player++) {
+            output.append(game.getHand(player)).append(' ')
+                    .append(game.getScore(player)).append(' ')
+                    .append(game.getPoints(player, HeadlessGame.PEGGING)).append(' ')
+                    .append(game.getLegalCards(player)).append(' ');
+        }
+        PeggingState pegging = game.getPegging();
+        for (int i = 0; i < pegging.size(); i++) {
+            output.append(pegging.getValue(i)).append(',');
+        }
+        return output.append(' ').append(game.getRunningSum())
+                .append(' ').append(game.getPlayedCards())
+                .append(' ').append(game.getPlayCount())
+                .append(' ').append(game.getCurrentPlayer())
+                .append(' ').append(game.getLastPlayer())
+                .append(' ').append(game.getWinner())
+                .append(' ').append(game.getGameStatus())
+                .toString();
+    }
+}
@@ -0,0 +1,200 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+This class is a load test for a running server: many clients, each playing its own table, send requests as fast as
+the server answers them, and it reports requests per second and latency percentiles.
+
+Each client has its own game ID and repeats: deal a round (GET /api/current-game), read the win probability
+(GET /api/win-probability) and read the registry metrics (GET /api/registry-metrics). These are light on CPU, so the
+run measures request handling rather than scoring. Clients run on virtual threads, so thousands of them are cheap on
+the client side. Requests sent during the warm-up aren't counted.
+
+To compare Tomcat's platform-thread pool with virtual threads, run the server once without and once with
+-Dcribbage.virtual-threads=true (see VirtualThreadConfig), with the same arguments here:
+
+    java com.demo.example.LoadBenchmark [baseUrl] [clients] [seconds] [warmupSeconds]
+
+(defaults: http://localhost:8080, 1000 clients, 30 seconds, 5 seconds of warm-up). Results depend on the machine, and
+when the server and the clients share a few cores the run is CPU-bound, so only compare runs from the same machine.
+
+Responsibilities:
+    - Drive a number of concurrent clients against a base URL for a number of seconds
+    - Report requests per second, errors, and the 50th, 99th and 99.9th percentile and maximum latency
+
+Relies upon: None (talks to the server over HTTP).
+ */
+
+public class LoadBenchmark {
+
+    private static final String[] PATHS = {"/api/current-game", "/api/win-probability", "/api/registry-metrics"};
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    /*
+    Constructor.
+     */
+    private LoadBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /*
+    Factory method. Returns a LoadBenchmark for the server at baseUrl (e.g. http://localhost:8080).
+     */
+    public static LoadBenchmark of(String baseUrl) {
+        return new LoadBenchmark(baseUrl);
+    }
+
+    /*
+    This class holds the latencies and errors of one run (or of one client's share of it).
+     */
+    public static final class Report {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long elapsedNanos;
+
+        private Report() {
+        }
+
+        // adds a request's latency
+        private void add(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        // adds another report's requests
+        private void add(Report other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        public long getRequests() {
+            return this.count;
+        }
+
+        public long getErrors() {
+            return this.errors;
+        }
+
+        public double getRequestsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : count * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        /*
+        Returns the latency in milliseconds that a share of requests (0-1, e.g. 0.99) finished within.
+         */
+        public double getLatencyMillis(double share) {
+            if (count == 0) {
+                return 0.0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = Math.min(count - 1, (int) Math.ceil(share * count) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests in %.1f s: %.0f requests/s, %d errors%n"
+                            + "latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                    count, elapsedNanos / 1e9, getRequestsPerSecond(), errors,
+                    getLatencyMillis(0.5), getLatencyMillis(0.99), getLatencyMillis(0.999), getLatencyMillis(1.0));
+        }
+    }
+
+    /*
+    Runs clients concurrent clients for warmupSeconds (not counted) then seconds, and returns the Report.
+     */
+    public Report run(int clients, int seconds, int warmupSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long until = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<Report>> futures = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                String gameId = "load-" + i;
+                futures.add(workers.submit(() -> play(gameId, measureFrom, until)));
+            }
+
+            Report total = new Report();
+            for (Future<Report> future : futures) {
+                total.add(future.get());
+            }
+            total.elapsedNanos = System.nanoTime() - measureFrom;
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Client failed", e.getCause());
+        }
+    }
+
+    // one client: sends its requests in turn until the end of the run
+    private Report play(String gameId, long measureFrom, long until) throws InterruptedException {
+        Report report = new Report();
+        for (int request = 0; ; request++) {
+            HttpRequest httpRequest = HttpRequest.newBuilder(
+                            URI.create(baseUrl + PATHS[request % PATHS.length] + "?gameId=" + gameId))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            long sent = System.nanoTime();
+            if (sent >= until) {
+                return report;
+            }
+            boolean ok;
+            try {
+                ok = client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (IOException e) {
+                ok = false;
+            }
+            long done = System.nanoTime();
+
+            if (sent >= measureFrom) {
+                if (ok) {
+                    report.add(done - sent);
+                } else {
+                    report.errors++;
+                }
+            }
+        }
+    }
+
+    /*
+    Usage: LoadBenchmark [base URL] [clients] [seconds] [warm-up seconds]
+    Defaults: http://localhost:8080, 1000 clients, 30 seconds, 5 seconds of warm-up.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        System.out.println(clients + " clients against " + baseUrl + " for " + seconds + " s");
+        System.out.print(LoadBenchmark.of(baseUrl).run(clients, seconds, warmupSeconds));
+    }
+
+}
@@ -0,0 +1,344 @@
+package com.demo.example;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/*
+This class is a computer opponent for the PLAY stage. It chooses each card with information-set Monte Carlo tree search
+(ISMCTS), within a fixed wall-clock budget per card.
+
+The player can't see the opponent's cards, so every playout starts by guessing them: the opponent's remaining cards
+are drawn at random from the cards this player hasn't seen (not in its own six, not played, not the faceUpCard). The
+rest of the round is then played on a single copy of the game, which is put back with undoPlay after every playout:
+    - Selection: from the root, while every legal card already has a node, pick the child with the best UCB score.
+        Only children that are legal in this guess count, and each of them has its availability counted, so cards the
+        opponent may not even hold aren't over-explored.
+    - Expansion: add a node for one legal card that hasn't been tried yet.
+    - Playout: play random legal cards until the round's PLAY stage is over.
+    - Backpropagation: every node on the path gets the pegging points its player earned minus the points the other
+        player earned, from the root to the end of PLAY. Reaching 121 adds WIN_BONUS.
+
+Points are scored by HeadlessGame, with the same rules as Game's calculatePointsInPlayedCards and chooseCurrentPlayer
+(go points, counts starting again after 31 or a go, the same player playing again when the other can't).
+
+The tree is kept between the cards of one round. On the next decision the root moves down through the cards played
+since (ours and the opponent's), so the search carries on instead of starting again.
+
+Discards are chosen by a GreedyStrategy.
+
+Data:
+    - long budgetNanos: time allowed to choose each card
+    - long maxPlayouts: stop earlier after this many playouts (Long.MAX_VALUE for no limit)
+    - Node root, HeadlessGame rootGame, int rootRound, long rootKept, int rootPlayCount: the kept tree, which game and
+        round it is for, the cards the player kept that round, and how many cards had been played when it was the root
+    - long playouts, searchNanos, reusedVisits: totals for reporting
+
+Responsibilities:
+    - Choose a discard and a card to play (Strategy)
+    - Report playouts per second and how much of the tree was reused
+
+Relies upon:
+    - HeadlessGame, to play out rounds
+    - GreedyStrategy, for discards
+ */
+
+public class MctsPlayer implements Strategy {
+
+    // UCB exploration constant, in pegging points
+    private static final double EXPLORATION = 3.0;
+
+    // added to the reward of the player who reaches 121 during the playout
+    private static final double WIN_BONUS = 50.0;
+
+    private final long budgetNanos;
+    private final long maxPlayouts;
+    private final SplittableRandom random;
+    private final GreedyStrategy discards;
+
+    private Node root;
+    private final Node[] path;
+    private HeadlessGame rootGame;
+    private int rootRound;
+    private long rootKept;
+    private int rootPlayCount;
+
+    private long playouts;
+    private long searchNanos;
+    private long reusedVisits;
+
+    /*
+    This class represents a card played after the moves of its parent, by player.
+     */
+    private static final class Node {
+        private final int card;
+        private final int player;
+        private final ArrayList<Node> children = new ArrayList<>(4);
+        private int visits;
+        private int availability;
+        private double totalReward;
+
+        private Node(int card, int player) {
+            this.card = card;
+            this.player = player;
+        }
+
+        // returns the child for a card played by player, or null if it hasn't been expanded
+        private Node findChild(int card, int player) {
+            for (int i = 0; i < children.size(); i++) {
+                Node child = children.get(i);
+                if (child.card == card && child.player == player) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    /*
+    Constructor.
+     */
+    private MctsPlayer(long budgetNanos, long maxPlayouts, long seed, GreedyStrategy discards) {
+        if (budgetNanos <= 0 || maxPlayouts <= 0) {
+            throw new IllegalArgumentException("Search needs time and playouts");
+        }
+        this.budgetNanos = budgetNanos;
+        this.maxPlayouts = maxPlayouts;
+        this.random = new SplittableRandom(seed);
+        this.discards = discards;
+        this.path = new Node[2 * DiscardOptimizer.KEPT_CARDS + 1];
+        this.rootRound = -1;
+    }
+
+    /*
+    Factory method. Returns an MctsPlayer that spends budgetMillis milliseconds on each card.
+     */
+    public static MctsPlayer of(long budgetMillis, long seed) {
+        return new MctsPlayer(budgetMillis * 1_000_000L, Long.MAX_VALUE, seed, GreedyStrategy.of());
+    }
+
+    /*
+    Factory method. Returns an MctsPlayer that stops after maxPlayouts playouts or budgetMillis, whichever comes
+    first, and looks discards up in a DiscardTable (or DiscardOptimizer if discardTable is null).
+     */
+    public static MctsPlayer of(long budgetMillis, long maxPlayouts, long seed, DiscardTable discardTable) {
+        GreedyStrategy discards = discardTable == null ? GreedyStrategy.of() : GreedyStrategy.of(discardTable);
+        return new MctsPlayer(budgetMillis * 1_000_000L, maxPlayouts, seed, discards);
+    }
+
+    @Override
+    public long chooseDiscard(HeadlessGame game, int player) {
+        return discards.chooseDiscard(game, player);
+    }
+
+    /*
+    Chooses a card by searching until the budget runs out, then plays the most visited card.
+     */
+    @Override
+    public int choosePlay(HeadlessGame game, int player) {
+        long legal = game.getLegalCards(player);
+        if (Long.bitCount(legal) == 1) {
+            return Long.numberOfTrailingZeros(legal);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        moveRoot(game, player);
+
+        int opponent = 1 - player;
+        long unseen = ScoringEngine.FULL_DECK_MASK & ~(game.getKept(player) | game.getDiscarded(player)
+                | game.getPlayedCards() | (1L << game.getStarter()));
+        int opponentCards = Long.bitCount(game.getHand(opponent));
+
+        HeadlessGame guess = game.copy();
+        int rootPlays = guess.getPlayCount();
+        long count = 0;
+        do {
+            guess.setHand(opponent, sample(unseen, opponentCards));
+            search(guess);
+            while (guess.getPlayCount() > rootPlays) {
+                guess.undoPlay();
+            }
+            count++;
+        } while (count < maxPlayouts && System.nanoTime() < deadline);
+
+        playouts += count;
+        searchNanos += System.nanoTime() - start;
+
+        Node best = null;
+        for (Node child : root.children) {
+            if (child.player == player && (legal & (1L << child.card)) != 0
+                    && (best == null || child.visits > best.visits)) {
+                best = child;
+            }
+        }
+        return best.card;
+    }
+
+    // runs one selection, expansion, playout and backpropagation on a guessed game
+    private void search(HeadlessGame guess) {
+        int startPointsA = guess.getPoints(HeadlessGame.PLAYER_A, HeadlessGame.PEGGING);
+        int startPointsB = guess.getPoints(HeadlessGame.PLAYER_B, HeadlessGame.PEGGING);
+
+        int depth = 0;
+        path[depth++] = root;
+        Node node = root;
+
+        // selection and expansion
+        while (guess.getGameStatus() == Game.GameStatus.PLAY) {
+            int mover = guess.getCurrentPlayer();
+            long legal = guess.getLegalCards(mover);
+
+            long untried = legal;
+            for (Node child : node.children) {
+                if (child.player == mover) {
+                    untried &= ~(1L << child.card);
+                }
+            }
+
+            if (untried != 0L) {
+                int card = pick(untried);
+                Node child = new Node(card, mover);
+                node.children.add(child);
+                guess.play(card);
+                path[depth++] = child;
+                break;
+            }
+
+            Node selected = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : node.children) {
+                if (child.player != mover || (legal & (1L << child.card)) == 0L) {
+                    continue;
+                }
+                child.availability++;
+                double score = child.totalReward / child.visits
+                        + EXPLORATION * Math.sqrt(Math.log(child.availability) / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    selected = child;
+                }
+            }
+
+            guess.play(selected.card);
+            path[depth++] = selected;
+            node = selected;
+        }
+
+        // playout
+        while (guess.getGameStatus() == Game.GameStatus.PLAY) {
+            guess.play(pick(guess.getLegalCards(guess.getCurrentPlayer())));
+        }
+
+        // backpropagation. difference is from Player A's point of view.
+        double difference = (guess.getPoints(HeadlessGame.PLAYER_A, HeadlessGame.PEGGING) - startPointsA)
+                - (guess.getPoints(HeadlessGame.PLAYER_B, HeadlessGame.PEGGING) - startPointsB);
+        if (guess.getWinner() == HeadlessGame.PLAYER_A) {
+            difference += WIN_BONUS;
+        } else if (guess.getWinner() == HeadlessGame.PLAYER_B) {
+            difference -= WIN_BONUS;
+        }
+        root.visits++;
+        for (int i = 1; i < depth; i++) {
+            Node visited = path[i];
+            visited.visits++;
+            visited.totalReward += visited.player == HeadlessGame.PLAYER_A ? difference : -difference;
+        }
+    }
+
+    /*
+    Moves the root down through the cards played since the last decision, if it was in the same round of the same game
+    with the same kept cards. Otherwise starts a new tree.
+     */
+    private void moveRoot(HeadlessGame game, int player) {
+        if (root != null && rootGame == game && rootRound == game.getRounds() && rootKept == game.getKept(player)
+                && rootPlayCount <= game.getPlayCount()) {
+            Node node = root;
+            for (int i = rootPlayCount; i < game.getPlayCount() && node != null; i++) {
+                int card = game.getPlayedCard(i);
+                int cardPlayer = (game.getKept(player) & (1L << card)) != 0L ? player : 1 - player;
+                node = node.findChild(card, cardPlayer);
+            }
+
+            if (node != null) {
+                root = node;
+                rootPlayCount = game.getPlayCount();
+                reusedVisits += root.visits;
+                return;
+            }
+        }
+
+        root = new Node(-1, -1);
+        rootGame = game;
+        rootRound = game.getRounds();
+        rootKept = game.getKept(player);
+        rootPlayCount = game.getPlayCount();
+    }
+
+    // returns count cards chosen at random from a bitmask
+    private long sample(long cards, int count) {
+        long chosen = 0L;
+        for (int i = 0; i < count; i++) {
+            int card = pick(cards);
+            chosen |= 1L << card;
+            cards &= ~(1L << card);
+        }
+        return chosen;
+    }
+
+    // returns the ordinal of one card from a bitmask, chosen at random
+    private int pick(long cards) {
+        for (int skip = random.nextInt(Long.bitCount(cards)); skip > 0; skip--) {
+            cards &= cards - 1;
+        }
+        return Long.numberOfTrailingZeros(cards);
+    }
+
+    // returns the total number of playouts run
+    public long getPlayouts() {
+        return this.playouts;
+    }
+
+    // returns the playouts run per second of search
+    public double getPlayoutsPerSecond() {
+        return searchNanos == 0 ? 0.0 : playouts * 1_000_000_000.0 / searchNanos;
+    }
+
+    // returns the visits inherited from earlier searches when the root was moved down instead of starting over
+    public long getReusedVisits() {
+        return this.reusedVisits;
+    }
+
+    /*
+    Plays games against a GreedyStrategy and reports win rate and playouts per second.
+    Usage: MctsPlayer [games] [budget ms] [seed]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long budgetMillis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        MctsPlayer player = MctsPlayer.of(budgetMillis, seed);
+        DealSequence deals = DealSequence.of(seed);
+        int wins = 0;
+        long peggingDifference = 0;
+
+        for (int i = 0; i < games; i++) {
+            DealSequence sequence = deals.split();
+            DealSequence mirror = sequence.mirrored();
+            for (DealSequence game : new DealSequence[]{sequence, mirror}) {
+                HeadlessGame headlessGame = HeadlessGame.of(game);
+                if (headlessGame.playGame(player, GreedyStrategy.of()) == HeadlessGame.PLAYER_A) {
+                    wins++;
+                }
+                peggingDifference += headlessGame.getPoints(HeadlessGame.PLAYER_A, HeadlessGame.PEGGING)
+                        - headlessGame.getPoints(HeadlessGame.PLAYER_B, HeadlessGame.PEGGING);
+            }
+        }
+
+        System.out.printf("MCTS (%d ms) vs greedy: won %d of %d duplicate games, pegging %+.2f per game%n",
+                budgetMillis, wins, 2 * games, (double) peggingDifference / (2 * games));
+        System.out.printf("%d playouts, %.0f playouts/s, %d visits reused%n",
+                player.getPlayouts(), player.getPlayoutsPerSecond(), player.getReusedVisits());
+    }
+
+}
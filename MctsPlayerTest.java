@@ -0,0 +1,83 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MctsPlayerTest {
+
+    /*
+    Expected: the MCTS player only makes legal plays (HeadlessGame throws otherwise), finishes every game,
+        keeps its tree between the cards of a round, and out-pegs a random player.
+     */
+    @Test
+    void playsWholeGames() {
+        MctsPlayer player = MctsPlayer.of(50, 2000, 8L, null);
+        int peggingDifference = 0;
+
+        for (long seed = 0; seed < 5; seed++) {
+            HeadlessGame game = HeadlessGame.of(DealSequence.of(seed));
+            game.playGame(player, RandomStrategy.of(seed));
+
+            assertTrue(game.isOver());
+            peggingDifference += game.getPoints(HeadlessGame.PLAYER_A, HeadlessGame.PEGGING)
+                    - game.getPoints(HeadlessGame.PLAYER_B, HeadlessGame.PEGGING);
+        }
+
+        assertTrue(player.getPlayouts() > 0);
+        assertTrue(player.getPlayoutsPerSecond() > 0);
+        assertTrue(player.getReusedVisits() > 0);
+        assertTrue(peggingDifference > 0);
+    }
+
+    /*
+    Expected: the player keeps its tree between two of its cards in the same game, but not into another game at the
+        same round and count, even with the same deal and plays.
+     */
+    @Test
+    void newTreeForEachGame() {
+        MctsPlayer player = MctsPlayer.of(50, 500, 3L, null);
+
+        HeadlessGame first = HeadlessGame.of(DealSequence.of(21L));
+        first.dealRound();
+        first.discard(HeadlessGame.PLAYER_A, DiscardOptimizer.discardOption(first.getHand(HeadlessGame.PLAYER_A), 0));
+        first.discard(HeadlessGame.PLAYER_B, DiscardOptimizer.discardOption(first.getHand(HeadlessGame.PLAYER_B), 0));
+        int pone = first.getCurrentPlayer();
+        int lead = player.choosePlay(first, pone);
+        first.play(lead);
+        int reply = GreedyStrategy.of().choosePlay(first, first.getCurrentPlayer());
+        first.play(reply);
+        player.choosePlay(first, pone);
+        long reused = player.getReusedVisits();
+        assertTrue(reused > 0);
+
+        HeadlessGame second = HeadlessGame.of(DealSequence.of(21L));
+        second.dealRound();
+        second.discard(HeadlessGame.PLAYER_A, DiscardOptimizer.discardOption(second.getHand(HeadlessGame.PLAYER_A), 0));
+        second.discard(HeadlessGame.PLAYER_B, DiscardOptimizer.discardOption(second.getHand(HeadlessGame.PLAYER_B), 0));
+        second.play(lead);
+        second.play(reply);
+        player.choosePlay(second, pone);
+        assertEquals(reused, player.getReusedVisits());
+    }
+
+    /*
+    Expected: the search stays within its time budget (with some slack for a busy machine).
+     */
+    @Test
+    void staysWithinBudget() {
+        MctsPlayer player = MctsPlayer.of(5, 1L);
+        HeadlessGame game = HeadlessGame.of(DealSequence.of(11L));
+        game.dealRound();
+        game.discard(HeadlessGame.PLAYER_A, player.chooseDiscard(game, HeadlessGame.PLAYER_A));
+        game.discard(HeadlessGame.PLAYER_B, player.chooseDiscard(game, HeadlessGame.PLAYER_B));
+
+        int current = game.getCurrentPlayer();
+        long start = System.nanoTime();
+        int card = player.choosePlay(game, current);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotEquals(0L, game.getLegalCards(current) & (1L << card));
+        assertTrue(elapsedMillis < 50, elapsedMillis + " ms");
+    }
+}
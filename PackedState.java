@@ -0,0 +1,281 @@
+package com.demo.example;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/*
+This class is the whole state of a Game packed into four longs (32 bytes), so it can be copied, compared, hashed,
+cached and stored without touching the ~10 objects and several ArrayLists a live Game is made of.
+
+Layout (bit 0 is the lowest bit of each long):
+    - words[0], words[1], words[2] bits 0-29: where each of the 52 cards is, 3 bits per card (a CardLocations.Location),
+        21 cards per long, in ordinal order (see ScoringEngine)
+    - words[2] bits 30-37, 38-45: Player A's and Player B's points (0-255)
+    - words[2] bits 46-51: running sum (0-63)
+    - words[3] bits 0-47: ordinals of the cards in playedCards, in the order they were played, 6 bits each (up to 8)
+    - words[3] bits 48-51: number of cards in playedCards
+    - words[3] bits 52-54: GameStatus ordinal, 7 for none
+    - words[3] bit 55: Player A is the current dealer
+    - words[3] bit 56: Player A is the current player
+
+Cards that are played and then returned to a hand for the SHOW are in the hand, and also in the played order; whose
+played list they belong to comes from their location (HAND_A or PLAYED_A means Player A's).
+
+Conversion to and from Game keeps every card where it was, the order cards were played, points, the running sum,
+the dealer, the current player, the status and the faceUpCard. Two things are not part of the state and come back
+canonical: the order of cards within a hand or crib (sorted by ordinal), and the order of the deck, which is not used
+again after a round has been dealt.
+
+Responsibilities:
+    - Pack a Game, and unpack it into a new Game
+    - Return any part of the state
+    - Write to and read from 32 bytes
+    - equals and hashCode, so states can be used as keys
+
+Relies upon:
+    - Game, Player, Hand, Board and Deck, to read and rebuild games
+    - CardLocations, to find where each card is
+    - CardRegistry, to turn ordinals back into Cards
+ */
+
+public final class PackedState {
+
+    public static final int BYTES = 32;
+
+    private static final int CARDS_PER_WORD = 21;
+    private static final int MAX_PLAYED = 2 * DiscardOptimizer.KEPT_CARDS;
+    private static final int NO_STATUS = 7;
+
+    private static final CardLocations.Location[] LOCATIONS = CardLocations.Location.values();
+    private static final Game.GameStatus[] STATUSES = Game.GameStatus.values();
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+
+    /*
+    Constructor.
+     */
+    private PackedState(long word0, long word1, long word2, long word3) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+        this.word3 = word3;
+    }
+
+    /*
+    Factory method. Returns a PackedState from its four longs.
+     */
+    public static PackedState of(long word0, long word1, long word2, long word3) {
+        return new PackedState(word0, word1, word2, word3);
+    }
+
+    /*
+    Factory method. Packs a Game.
+    Throws IllegalArgumentException if points or the running sum don't fit, or more than 8 cards have been played.
+     */
+    public static PackedState of(Game game) {
+        CardLocations locations = CardLocations.of();
+        locations.rebuild(game);
+
+        long[] words = new long[4];
+        for (int ordinal = 0; ordinal < ScoringEngine.CARDS_IN_DECK; ordinal++) {
+            long location = locations.get(ordinal).ordinal();
+            words[ordinal / CARDS_PER_WORD] |= location << (3 * (ordinal % CARDS_PER_WORD));
+        }
+
+        int pointsA = game.getBoard().getPlayerAPoints();
+        int pointsB = game.getBoard().getPlayerBPoints();
+        int runningSum = game.getRunningSum();
+        if (pointsA > 255 || pointsB > 255 || runningSum < 0 || runningSum > 63) {
+            throw new IllegalArgumentException("Points or running sum too large to pack");
+        }
+        words[2] |= (long) pointsA << 30 | (long) pointsB << 38 | (long) runningSum << 46;
+
+        ArrayList<Card> playedCards = game.getPlayedCards() == null ? new ArrayList<>() : game.getPlayedCards();
+        if (playedCards.size() > MAX_PLAYED) {
+            throw new IllegalArgumentException("Too many played cards to pack");
+        }
+        for (int i = 0; i < playedCards.size(); i++) {
+            words[3] |= (long) ScoringEngine.ordinal(playedCards.get(i)) << (6 * i);
+        }
+        int status = game.getGameStatus() == null ? NO_STATUS : game.getGameStatus().ordinal();
+        words[3] |= (long) playedCards.size() << 48
+                | (long) status << 52
+                | (game.isCurrentDealerA() ? 1L : 0L) << 55
+                | (game.isCurrentPlayerA() ? 1L : 0L) << 56;
+
+        return new PackedState(words[0], words[1], words[2], words[3]);
+    }
+
+    /*
+    Unpacks this state into a new Game.
+     */
+    public Game toGame() {
+        Game game = Game.of();
+        game.setUpDeal();
+
+        if (isDealerA()) {
+            game.setCurrentDealerA();
+        } else {
+            game.setCurrentDealerB();
+        }
+        if (isCurrentPlayerA()) {
+            game.setCurrentPlayerA();
+        } else {
+            game.setCurrentPlayerB();
+        }
+
+        game.getPlayerA().createHand(cardsAt(CardLocations.Location.HAND_A));
+        game.getPlayerB().createHand(cardsAt(CardLocations.Location.HAND_B));
+        game.getPlayerA().createCrib(cardsAt(CardLocations.Location.CRIB_A));
+        game.getPlayerB().createCrib(cardsAt(CardLocations.Location.CRIB_B));
+
+        for (int i = 0; i < getPlayedCount(); i++) {
+            int ordinal = getPlayedCard(i);
+            Card card = CardRegistry.fromOrdinal(ordinal);
+            game.addCardToPlayedCards(card);
+            CardLocations.Location location = getLocation(ordinal);
+            if (location == CardLocations.Location.HAND_A || location == CardLocations.Location.PLAYED_A) {
+                game.addToPlayerAPlayed(card);
+            } else {
+                game.addToPlayerBPlayed(card);
+            }
+        }
+
+        long starter = getCards(CardLocations.Location.STARTER);
+        game.faceUpCard = starter == 0L ? null : CardRegistry.fromOrdinal(Long.numberOfTrailingZeros(starter));
+
+        // setUpDeal drew a faceUpCard from a new deck; put the deck back to the cards that were in it
+        long deck = getCards(CardLocations.Location.DECK);
+        game.getDeck().getAllCards().removeIf(card -> (deck & (1L << ScoringEngine.ordinal(card))) == 0L);
+        for (Card card : cardsAt(CardLocations.Location.DECK)) {
+            if (!game.getDeck().containsCard(card)) {
+                game.getDeck().addCardToDeck(card);
+            }
+        }
+
+        game.resetRunningSum();
+        game.addToRunningSum(getRunningSum());
+        game.getBoard().addToPlayerAPoints(getPlayerAPoints());
+        game.getBoard().addToPlayerBPoints(getPlayerBPoints());
+        game.setGameStatus(getGameStatus());
+
+        return game;
+    }
+
+    // returns the Cards at a location, in ordinal order
+    private ArrayList<Card> cardsAt(CardLocations.Location location) {
+        ArrayList<Card> cards = new ArrayList<>();
+        for (long mask = getCards(location); mask != 0L; mask &= mask - 1) {
+            cards.add(CardRegistry.fromOrdinal(Long.numberOfTrailingZeros(mask)));
+        }
+        return cards;
+    }
+
+    // returns the location of the card with the given ordinal
+    public CardLocations.Location getLocation(int ordinal) {
+        long word = ordinal < CARDS_PER_WORD ? word0 : ordinal < 2 * CARDS_PER_WORD ? word1 : word2;
+        return LOCATIONS[(int) (word >>> (3 * (ordinal % CARDS_PER_WORD))) & 7];
+    }
+
+    // returns the bitmask of every card at a location
+    public long getCards(CardLocations.Location location) {
+        long mask = 0L;
+        for (int ordinal = 0; ordinal < ScoringEngine.CARDS_IN_DECK; ordinal++) {
+            if (getLocation(ordinal) == location) {
+                mask |= 1L << ordinal;
+            }
+        }
+        return mask;
+    }
+
+    public int getPlayerAPoints() {
+        return (int) (word2 >>> 30) & 0xFF;
+    }
+
+    public int getPlayerBPoints() {
+        return (int) (word2 >>> 38) & 0xFF;
+    }
+
+    public int getRunningSum() {
+        return (int) (word2 >>> 46) & 0x3F;
+    }
+
+    // returns the number of cards in playedCards
+    public int getPlayedCount() {
+        return (int) (word3 >>> 48) & 0xF;
+    }
+
+    // returns the ordinal of the card at position index in playedCards
+    public int getPlayedCard(int index) {
+        return (int) (word3 >>> (6 * index)) & 0x3F;
+    }
+
+    // returns the GameStatus, or null if the game had none
+    public Game.GameStatus getGameStatus() {
+        int status = (int) (word3 >>> 52) & 7;
+        return status == NO_STATUS ? null : STATUSES[status];
+    }
+
+    public boolean isDealerA() {
+        return ((word3 >>> 55) & 1L) != 0L;
+    }
+
+    public boolean isCurrentPlayerA() {
+        return ((word3 >>> 56) & 1L) != 0L;
+    }
+
+    // returns one of the four longs (0-3)
+    public long getWord(int index) {
+        switch (index) {
+            case 0:
+                return word0;
+            case 1:
+                return word1;
+            case 2:
+                return word2;
+            case 3:
+                return word3;
+            default:
+                throw new IllegalArgumentException("A PackedState has four words");
+        }
+    }
+
+    /*
+    Writes the 32 bytes of this state at the buffer's position.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(word0).putLong(word1).putLong(word2).putLong(word3);
+    }
+
+    /*
+    Reads a state from the 32 bytes at the buffer's position.
+     */
+    public static PackedState readFrom(ByteBuffer buffer) {
+        return new PackedState(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PackedState)) {
+            return false;
+        }
+        PackedState state = (PackedState) other;
+        return word0 == state.word0 && word1 == state.word1 && word2 == state.word2 && word3 == state.word3;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = word0 * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ word1) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ word2) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ word3) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+}
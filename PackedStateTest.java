@@ -0,0 +1,130 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedStateTest {
+
+    /*
+    Expected: a game in the middle of PLAY packs into a state that unpacks into a game that packs into the same
+        state, with the same hands, cribs, played cards (in order), faceUpCard, points and running sum.
+     */
+    @Test
+    void roundTrip() {
+        Game game = playingGame();
+
+        PackedState state = PackedState.of(game);
+        Game copy = state.toGame();
+
+        assertEquals(state, PackedState.of(copy));
+        assertEquals(game.getPlayedCards(), copy.getPlayedCards());
+        assertEquals(game.getPlayerAPlayed(), copy.getPlayerAPlayed());
+        assertEquals(game.getPlayerBPlayed(), copy.getPlayerBPlayed());
+        assertEquals(game.getFaceUpCard(), copy.getFaceUpCard());
+        assertEquals(game.getRunningSum(), copy.getRunningSum());
+        assertEquals(game.getBoard().getPlayerAPoints(), copy.getBoard().getPlayerAPoints());
+        assertEquals(game.getGameStatus(), copy.getGameStatus());
+        assertEquals(game.isCurrentDealerA(), copy.isCurrentDealerA());
+        assertEquals(game.isCurrentPlayerA(), copy.isCurrentPlayerA());
+        assertTrue(copy.getPlayerA().getHand().getCards().containsAll(game.getPlayerA().getHand().getCards()));
+        assertTrue(copy.getPlayerB().getCrib().getCards().containsAll(game.getPlayerB().getCrib().getCards()));
+        assertEquals(game.getDeck().getAllCards().size(), copy.getDeck().getAllCards().size());
+    }
+
+    /*
+    Expected: in SHOW, when played cards are put back in the hands, the cards are in the hands and still in each
+        player's played list after a round trip.
+     */
+    @Test
+    void roundTripShow() {
+        Game game = playingGame();
+        game.getPlayerA().createHand(game.getPlayerAPlayed());
+        game.getPlayerB().createHand(game.getPlayerBPlayed());
+        game.setGameStatus(Game.GameStatus.SHOW);
+
+        PackedState state = PackedState.of(game);
+        Game copy = state.toGame();
+
+        assertEquals(state, PackedState.of(copy));
+        assertEquals(game.getPlayerAPlayed(), copy.getPlayerA().getHand().getCards());
+        assertEquals(game.getPlayerAPlayed(), copy.getPlayerAPlayed());
+        assertEquals(game.getPlayerBPlayed(), copy.getPlayerBPlayed());
+    }
+
+    /*
+    Expected: the state is exactly 32 bytes and reads back equal, with the same hashCode.
+     */
+    @Test
+    void bytes() {
+        PackedState state = PackedState.of(playingGame());
+
+        ByteBuffer buffer = ByteBuffer.allocate(PackedState.BYTES);
+        state.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+
+        buffer.flip();
+        PackedState read = PackedState.readFrom(buffer);
+        assertEquals(state, read);
+        assertEquals(state.hashCode(), read.hashCode());
+    }
+
+    /*
+    Expected: each part of the state can be read without unpacking.
+     */
+    @Test
+    void getters() {
+        Game game = playingGame();
+        PackedState state = PackedState.of(game);
+
+        assertEquals(game.getRunningSum(), state.getRunningSum());
+        assertEquals(game.getPlayedCards().size(), state.getPlayedCount());
+        assertEquals(ScoringEngine.ordinal(game.getPlayedCards().get(0)), state.getPlayedCard(0));
+        assertEquals(CardLocations.Location.STARTER, state.getLocation(ScoringEngine.ordinal(game.getFaceUpCard())));
+        assertEquals(ScoringEngine.handMask(game.getPlayerA().getHand().getCards()),
+                state.getCards(CardLocations.Location.HAND_A));
+        assertEquals(Game.GameStatus.PLAY, state.getGameStatus());
+    }
+
+    // returns a game that has been dealt, discarded, and played two cards, the way GameController does it
+    private static Game playingGame() {
+        Game game = Game.of();
+        game.setCurrentDealerA();
+        game.setCurrentPlayerB();
+        game.setUpDeal();
+        for (int i = 0; i < 6; i++) {
+            game.dealCard(game.getPlayerA());
+            game.dealCard(game.getPlayerB());
+        }
+
+        for (int i = 0; i < 2; i++) {
+            Card cardA = game.getPlayerA().getHand().getCards().get(0);
+            game.getPlayerA().addCardToCrib(cardA);
+            game.getPlayerA().getHand().removeCardFromHand(cardA);
+            Card cardB = game.getPlayerB().getHand().getCards().get(0);
+            game.getPlayerB().addCardToCrib(cardB);
+            game.getPlayerB().getHand().removeCardFromHand(cardB);
+        }
+        game.setGameStatus(Game.GameStatus.PLAY);
+
+        ArrayList<Card> handB = game.getPlayerB().getHand().getCards();
+        Card playedB = handB.get(0);
+        game.addCardToPlayedCards(playedB);
+        game.addToRunningSum(playedB.getScoringValue());
+        game.getPlayerB().getHand().removeCardFromHand(playedB);
+        game.addToPlayerBPlayed(playedB);
+        game.getBoard().addToPlayerBPoints(2);
+
+        Card playedA = game.getPlayerA().getHand().getCards().get(0);
+        game.addCardToPlayedCards(playedA);
+        game.addToRunningSum(playedA.getScoringValue());
+        game.getPlayerA().getHand().removeCardFromHand(playedA);
+        game.addToPlayerAPlayed(playedA);
+        game.getBoard().addToPlayerAPoints(5);
+
+        return game;
+    }
+}
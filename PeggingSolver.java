@@ -0,0 +1,282 @@
+package com.demo.example;
+
+import java.util.Arrays;
+
+/*
+This class solves the rest of the PLAY stage exactly when both players' remaining cards are known.
+
+With at most 8 cards left, the rest of PLAY is a small game tree. The solver searches all of it with negamax and
+alpha-beta pruning, scoring each card the same way HeadlessGame.play does (PeggingState points, 1 point for a go, the
+count starting again after 31 or a go, the same player playing again when the other can't).
+
+Value: the pegging points the player to move will earn from here to the end of PLAY, minus the points the other
+player will earn, with both playing perfectly. Reaching 121 is not taken into account.
+
+State encoding:
+    - At the start of a solve the remaining cards (at most 8) are numbered 0-7, so each hand is an 8-bit mask.
+    - The cards played since the count last started from 0 matter for future pairs and runs, so their values (4 bits
+        each, at most 7 of them) are part of the state.
+    - key = handA | handB << 8 | player to move << 16 | cards since reset << 17 | their values << 20
+        | generation << 48. The key is exact: two states with the same key have the same value.
+
+Transposition table:
+    - A fixed number of slots (a power of 2), chosen from the key's hash. A new entry always replaces the old one.
+    - Each entry stores the key and one int: the value, whether it is exact or a lower/upper bound, and the best card.
+    - Every solve uses a new generation, so entries from earlier solves (with different card numbers) never match and
+        the table never has to be cleared.
+
+Responsibilities:
+    - Return the optimal pegging differential and best card for a game in PLAY, or for two known hands and a
+        PeggingState
+
+Relies upon:
+    - PeggingState, to score each card
+    - HeadlessGame, for legal cards and the game being solved
+ */
+
+public final class PeggingSolver {
+
+    private static final int MAX_CARDS = 2 * DiscardOptimizer.KEPT_CARDS;
+
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+    private static final int NO_CARD = 15;
+
+    // larger than any pegging differential, small enough that adding points can't overflow
+    private static final int INFINITY = 10_000;
+
+    private final long[] keys;
+    private final int[] entries;
+    private final int slotMask;
+    private long generation;
+
+    // the remaining cards of the current solve, numbered 0-7
+    private final int[] cards;
+    private final int[] values;
+    private final int[] legalUpTo;
+    private final PeggingState[] stack;
+
+    private int bestCard;
+    private long nodes;
+
+    /*
+    Constructor. The table has 2^tableBits slots.
+     */
+    private PeggingSolver(int tableBits) {
+        if (tableBits < 4 || tableBits > 26) {
+            throw new IllegalArgumentException("Table size must be between 2^4 and 2^26 slots");
+        }
+        this.keys = new long[1 << tableBits];
+        this.entries = new int[1 << tableBits];
+        this.slotMask = (1 << tableBits) - 1;
+        this.cards = new int[MAX_CARDS];
+        this.values = new int[MAX_CARDS];
+        this.legalUpTo = new int[HeadlessGame.MAX_COUNT + 1];
+        this.stack = new PeggingState[MAX_CARDS + 1];
+        for (int i = 0; i < stack.length; i++) {
+            stack[i] = PeggingState.of();
+        }
+    }
+
+    /*
+    Factory method. Returns a PeggingSolver with a 2^16 slot table (768 KB).
+     */
+    public static PeggingSolver of() {
+        return new PeggingSolver(16);
+    }
+
+    /*
+    Factory method. Returns a PeggingSolver with a 2^tableBits slot table.
+     */
+    public static PeggingSolver of(int tableBits) {
+        return new PeggingSolver(tableBits);
+    }
+
+    /*
+    Solves the rest of PLAY for a game, from the current player's point of view.
+    Throws IllegalStateException if the game isn't in PLAY.
+     */
+    public int solve(HeadlessGame game) {
+        if (game.getGameStatus() != Game.GameStatus.PLAY) {
+            throw new IllegalStateException("Only PLAY can be solved");
+        }
+        return solve(game.getHand(HeadlessGame.PLAYER_A), game.getHand(HeadlessGame.PLAYER_B),
+                game.getCurrentPlayer(), game.getPegging());
+    }
+
+    /*
+    Solves the rest of PLAY for two hands (bitmasks), the player to move, and the cards played since the count last
+    started from 0. Returns the optimal differential for the player to move; getBestCard returns their best card.
+    The player to move must have a legal card.
+     */
+    public int solve(long handA, long handB, int currentPlayer, PeggingState pegging) {
+        long remaining = handA | handB;
+        if (Long.bitCount(remaining) > MAX_CARDS || (handA & handB) != 0L) {
+            throw new IllegalArgumentException("Need at most 8 different cards");
+        }
+        long toMove = currentPlayer == HeadlessGame.PLAYER_A ? handA : handB;
+        if (HeadlessGame.legalCards(toMove, pegging.getSum()) == 0L) {
+            throw new IllegalArgumentException("Player to move has no legal card");
+        }
+
+        // number the remaining cards 0-7
+        int compactA = 0;
+        int compactB = 0;
+        int count = 0;
+        for (long cardsLeft = remaining; cardsLeft != 0L; cardsLeft &= cardsLeft - 1) {
+            int ordinal = Long.numberOfTrailingZeros(cardsLeft);
+            cards[count] = ordinal;
+            values[count] = ScoringEngine.valueOf(ordinal);
+            if ((handA & (1L << ordinal)) != 0L) {
+                compactA |= 1 << count;
+            } else {
+                compactB |= 1 << count;
+            }
+            count++;
+        }
+        for (int limit = 0; limit <= HeadlessGame.MAX_COUNT; limit++) {
+            legalUpTo[limit] = 0;
+            for (int i = 0; i < count; i++) {
+                if (ScoringEngine.scoringValueOf(cards[i]) <= limit) {
+                    legalUpTo[limit] |= 1 << i;
+                }
+            }
+        }
+
+        long sequence = 0L;
+        for (int i = 0; i < pegging.size(); i++) {
+            sequence |= (long) pegging.getValue(i) << (4 * i);
+        }
+
+        generation = (generation + 1) & 0xFFFF;
+        if (generation == 0) {
+            Arrays.fill(keys, 0L);
+            generation = 1;
+        }
+
+        stack[0].copyFrom(pegging);
+        bestCard = -1;
+        return search(0, compactA, compactB, currentPlayer, pegging.size(), sequence, -INFINITY, INFINITY);
+    }
+
+    // negamax with alpha-beta from the point of view of player, who is to move
+    private int search(int depth, int handA, int handB, int player, int played, long sequence, int alpha, int beta) {
+        nodes++;
+        PeggingState pegging = stack[depth];
+        int hand = player == HeadlessGame.PLAYER_A ? handA : handB;
+        int other = player == HeadlessGame.PLAYER_A ? handB : handA;
+
+        long key = handA | (long) handB << 8 | (long) player << 16 | (long) played << 17 | sequence << 20
+                | generation << 48;
+        int slot = (int) mix(key) & slotMask;
+        int tableCard = NO_CARD;
+        if (keys[slot] == key) {
+            int entry = entries[slot];
+            int value = (short) entry;
+            int bound = (entry >>> 16) & 3;
+            tableCard = (entry >>> 20) & 0xF;
+            if (bound == EXACT) {
+                if (depth == 0) {
+                    bestCard = cards[tableCard];
+                }
+                return value;
+            } else if (bound == LOWER_BOUND) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                if (depth == 0) {
+                    bestCard = cards[tableCard];
+                }
+                return value;
+            }
+        }
+
+        int startAlpha = alpha;
+        int best = Integer.MIN_VALUE;
+        int bestIndex = NO_CARD;
+        int legal = hand & legalUpTo[HeadlessGame.MAX_COUNT - pegging.getSum()];
+
+        // the table's best card first, then the rest in order
+        int untried = legal;
+        int index = tableCard != NO_CARD && (legal & (1 << tableCard)) != 0
+                ? tableCard : Integer.numberOfTrailingZeros(legal);
+
+        while (true) {
+            untried &= ~(1 << index);
+            PeggingState next = stack[depth + 1];
+            next.copyFrom(pegging);
+            int earned = next.addCard(values[index]);
+
+            int newHand = hand & ~(1 << index);
+            int nextA = player == HeadlessGame.PLAYER_A ? newHand : handA;
+            int nextB = player == HeadlessGame.PLAYER_A ? handB : newHand;
+            int nextPlayed = played + 1;
+            long nextSequence = sequence | (long) values[index] << (4 * played);
+
+            int limit = legalUpTo[HeadlessGame.MAX_COUNT - next.getSum()];
+            int nextPlayer;
+            if (next.getSum() == HeadlessGame.MAX_COUNT || ((newHand | other) & limit) == 0) {
+                if (next.getSum() != HeadlessGame.MAX_COUNT) {
+                    earned++;
+                }
+                next.reset();
+                nextPlayed = 0;
+                nextSequence = 0L;
+                nextPlayer = other != 0 ? 1 - player : player;
+            } else {
+                nextPlayer = (other & limit) != 0 ? 1 - player : player;
+            }
+
+            int value;
+            if ((nextA | nextB) == 0) {
+                value = earned;
+            } else if (nextPlayer == player) {
+                value = earned + search(depth + 1, nextA, nextB, nextPlayer, nextPlayed, nextSequence,
+                        alpha - earned, beta - earned);
+            } else {
+                value = earned - search(depth + 1, nextA, nextB, nextPlayer, nextPlayed, nextSequence,
+                        earned - beta, earned - alpha);
+            }
+
+            if (value > best) {
+                best = value;
+                bestIndex = index;
+            }
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta || untried == 0) {
+                break;
+            }
+            index = Integer.numberOfTrailingZeros(untried);
+        }
+
+        int bound = best <= startAlpha ? UPPER_BOUND : best >= beta ? LOWER_BOUND : EXACT;
+        keys[slot] = key;
+        entries[slot] = (best & 0xFFFF) | bound << 16 | bestIndex << 20;
+        if (depth == 0) {
+            bestCard = cards[bestIndex];
+        }
+        return best;
+    }
+
+    // spreads the key's bits so nearby states use different slots
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    // returns the ordinal of the best card for the player to move, from the last solve
+    public int getBestCard() {
+        return this.bestCard;
+    }
+
+    // returns the number of positions searched by all solves so far
+    public long getNodes() {
+        return this.nodes;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeggingSolverTest {
+
+    /*
+    Expected: for random rounds, stopped after a random number of cards, the solver returns the same value as a plain
+        minimax over copies of the game, and its best card reaches that value.
+     */
+    @Test
+    void matchesMinimax() {
+        PeggingSolver solver = PeggingSolver.of(10);
+        SplittableRandom random = new SplittableRandom(14);
+
+        for (long seed = 0; seed < 300; seed++) {
+            HeadlessGame game = dealtGame(seed);
+            RandomStrategy strategy = RandomStrategy.of(seed);
+            for (int plays = random.nextInt(6); plays > 0; plays--) {
+                game.play(strategy.choosePlay(game, game.getCurrentPlayer()));
+            }
+
+            int expected = minimax(game);
+            assertEquals(expected, solver.solve(game), "seed " + seed);
+            assertEquals(expected, valueOf(game, solver.getBestCard()), "seed " + seed);
+        }
+    }
+
+    /*
+    Expected: solving from the two hands, the player to move and the PeggingState gives the same value as solving
+        the game, and the best card is one the player to move can play.
+     */
+    @Test
+    void solveFromHands() {
+        HeadlessGame game = dealtGame(42L);
+        int current = game.getCurrentPlayer();
+
+        PeggingSolver solver = PeggingSolver.of();
+        int fromGame = solver.solve(game);
+        int fromHands = solver.solve(game.getHand(HeadlessGame.PLAYER_A), game.getHand(HeadlessGame.PLAYER_B), current,
+                game.getPegging());
+
+        assertEquals(fromGame, fromHands);
+        assertNotEquals(0L, game.getLegalCards(current) & (1L << solver.getBestCard()));
+        assertTrue(solver.getNodes() > 0);
+    }
+
+    // deals one round and discards the first option for both players
+    private static HeadlessGame dealtGame(long seed) {
+        HeadlessGame game = HeadlessGame.of(DealSequence.of(seed));
+        game.dealRound();
+        game.discard(HeadlessGame.PLAYER_A, DiscardOptimizer.discardOption(game.getHand(HeadlessGame.PLAYER_A), 0));
+        game.discard(HeadlessGame.PLAYER_B, DiscardOptimizer.discardOption(game.getHand(HeadlessGame.PLAYER_B), 0));
+        return game;
+    }
+
+    // returns the best differential for the player to move, trying every card on copies of the game
+    private static int minimax(HeadlessGame game) {
+        int best = Integer.MIN_VALUE;
+        for (long legal = game.getLegalCards(game.getCurrentPlayer()); legal != 0L; legal &= legal - 1) {
+            best = Math.max(best, valueOf(game, Long.numberOfTrailingZeros(legal)));
+        }
+        return best;
+    }
+
+    // returns the differential for the player to move if they play card, then both play perfectly
+    private static int valueOf(HeadlessGame game, int card) {
+        int player = game.getCurrentPlayer();
+        HeadlessGame next = game.copy();
+        int earned = next.play(card);
+
+        if (next.getGameStatus() != Game.GameStatus.PLAY) {
+            return earned;
+        }
+        return next.getCurrentPlayer() == player ? earned + minimax(next) : earned - minimax(next);
+    }
+}
@@ -0,0 +1,233 @@
+package com.demo.example;
+
+/*
+This class tracks the cards played during the PLAY stage and scores each new card as it is played, without rescanning
+or copying the cards that came before it.
+
+Data:
+    - int[] values: values (1-13) of the cards played, oldest first
+    - int start, end: the cards of the current count are values[start] to values[end - 1]. Starting a new count moves
+        start to end instead of forgetting the earlier cards, so a count can be gone back to with restore.
+    - int sum: total scoring value of those cards
+    - int sameValueCount: number of cards at the end of the sequence sharing the last card's value
+    - int runLength: length of the longest run ending with the last card, or 0 if there is none
+
+Each new card updates sum and sameValueCount in constant time. Runs are found by walking back from the new card and
+marking values in a 13-bit mask; the walk stops at the first repeated value, so it never looks at more than 13 cards.
+
+Points are counted the same way as Game's gotFifteen, gotMultiples and gotRun (and 2 points for reaching 31 exactly),
+over the cards played since the last reset:
+    - 2 points if the sum is 15
+    - 2, 6 or 12 points for a pair, three of a kind or four of a kind ending with the new card
+    - 1 point per card for the longest run (3 or more cards, any order) ending with the new card
+    - 2 points if the sum is 31
+
+Responsibilities:
+    - Add a played card and return the points it earned
+    - Return the points a card would earn, without playing it
+    - Return the sum and each kind of points for the last card played
+    - Start a new count, or reset completely for a new round
+    - Save and restore its state in a single long, so a search can take cards back (see HeadlessGame.undoPlay)
+
+Relies upon:
+    - Card and ScoringEngine, for values, scoring values and ordinals
+ */
+
+public class PeggingState {
+
+    private final int[] values;
+    private int start;
+    private int end;
+    private int sum;
+    private int sameValueCount;
+    private int runLength;
+
+    /*
+    Constructor. Starts with no cards played.
+     */
+    private PeggingState() {
+        this.values = new int[ScoringEngine.CARDS_IN_DECK];
+        reset();
+    }
+
+    /*
+    Factory method. Returns a new PeggingState with no cards played.
+     */
+    public static PeggingState of() {
+        return new PeggingState();
+    }
+
+    /*
+    Returns a copy of this PeggingState that can be played forward on its own.
+     */
+    public PeggingState copy() {
+        PeggingState copy = new PeggingState();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /*
+    Makes this PeggingState the same as other, without allocating.
+     */
+    public void copyFrom(PeggingState other) {
+        System.arraycopy(other.values, 0, this.values, 0, other.end);
+        this.start = other.start;
+        this.end = other.end;
+        this.sum = other.sum;
+        this.sameValueCount = other.sameValueCount;
+        this.runLength = other.runLength;
+    }
+
+    /*
+    Removes all played cards, for a new round.
+     */
+    public void reset() {
+        this.start = 0;
+        this.end = 0;
+        this.sum = 0;
+        this.sameValueCount = 0;
+        this.runLength = 0;
+    }
+
+    /*
+    Starts a new count from 0 (after 31 or a go). The cards already played are kept for restore, but no longer
+    score with new cards.
+     */
+    public void startNewCount() {
+        this.start = this.end;
+        this.sum = 0;
+        this.sameValueCount = 0;
+        this.runLength = 0;
+    }
+
+    /*
+    Returns the whole state (apart from the values, which are never overwritten while they can be restored) packed in
+    a long: start, end, sum, sameValueCount and runLength, 8 bits each.
+     */
+    public long mark() {
+        return start | (long) end << 8 | (long) sum << 16 | (long) sameValueCount << 24 | (long) runLength << 32;
+    }
+
+    /*
+    Goes back to a state returned by mark. Marks must be restored latest first: cards added since a mark can be taken
+    back, but a mark taken before an earlier restore may point at values that have been overwritten.
+     */
+    public void restore(long mark) {
+        this.start = (int) (mark & 0xFF);
+        this.end = (int) ((mark >>> 8) & 0xFF);
+        this.sum = (int) ((mark >>> 16) & 0xFF);
+        this.sameValueCount = (int) ((mark >>> 24) & 0xFF);
+        this.runLength = (int) ((mark >>> 32) & 0xFF);
+    }
+
+    /*
+    Adds a played Card and returns the points it earned.
+     */
+    public int addCard(Card card) {
+        return addCard(card.getValue());
+    }
+
+    /*
+    Adds a played card by value (1-13) and returns the points it earned.
+     */
+    public int addCard(int value) {
+        if (end > start && values[end - 1] == value) {
+            sameValueCount++;
+        } else {
+            sameValueCount = 1;
+        }
+
+        values[end++] = value;
+        sum += Math.min(value, 10);
+        runLength = findRunLength();
+
+        return getPoints();
+    }
+
+    /*
+    Returns the points a card (by value, 1-13) would earn if it were played now, without playing it.
+     */
+    public int pointsFor(int value) {
+        long saved = mark();
+        int points = addCard(value);
+        restore(saved);
+        return points;
+    }
+
+    /*
+    Returns the length of the longest run ending with the last card played: the longest group of cards at the end of
+    the sequence with no repeated values whose highest and lowest values are (number of cards - 1) apart.
+     */
+    private int findRunLength() {
+        int seen = 0;
+        int lowest = 14;
+        int highest = 0;
+        int longest = 0;
+
+        for (int i = end - 1; i >= start; i--) {
+            int value = values[i];
+            int bit = 1 << value;
+            if ((seen & bit) != 0) {
+                break;
+            }
+            seen |= bit;
+            lowest = Math.min(lowest, value);
+            highest = Math.max(highest, value);
+
+            int cards = end - i;
+            if (cards >= 3 && highest - lowest == cards - 1) {
+                longest = cards;
+            }
+        }
+
+        return longest;
+    }
+
+    /*
+    Returns the points earned by the last card played.
+     */
+    public int getPoints() {
+        return getFifteenPoints() + getMultiplesPoints() + getRunPoints() + getThirtyOnePoints();
+    }
+
+    // returns 2 if the cards played since the last reset add up to 15, otherwise 0
+    public int getFifteenPoints() {
+        return sum == 15 ? 2 : 0;
+    }
+
+    // returns 2 if the cards played since the last reset add up to 31, otherwise 0
+    public int getThirtyOnePoints() {
+        return sum == 31 ? 2 : 0;
+    }
+
+    // returns 2, 6 or 12 for a pair, three of a kind or four of a kind ending with the last card, otherwise 0
+    public int getMultiplesPoints() {
+        return switch (sameValueCount) {
+            case 2 -> 2;
+            case 3 -> 6;
+            case 4 -> 12;
+            default -> 0;
+        };
+    }
+
+    // returns the number of cards in the longest run ending with the last card, or 0 if there is no run
+    public int getRunPoints() {
+        return this.runLength;
+    }
+
+    // returns the total scoring value of the cards played since the last reset
+    public int getSum() {
+        return this.sum;
+    }
+
+    // returns the number of cards played since the last reset
+    public int size() {
+        return this.end - this.start;
+    }
+
+    // returns the value (1-13) of the card played at position index since the last reset
+    public int getValue(int index) {
+        return this.values[this.start + index];
+    }
+
+}
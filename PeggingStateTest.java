@@ -0,0 +1,107 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeggingStateTest {
+
+    /*
+    Expected: the same points as the example in Game's comments.
+        - 5 --> 0, 5 --> 2 (pair), 5 --> 8 (fifteen and three of a kind), 6 --> 0,
+          4 --> 3 (run of 4, 5, 6), 6 --> 2 (31)
+     */
+    @Test
+    void scoresEachCard() {
+        PeggingState state = PeggingState.of();
+
+        assertEquals(0, state.addCard(Card.of(5, 1)));
+        assertEquals(2, state.addCard(Card.of(5, 2)));
+        assertEquals(8, state.addCard(Card.of(5, 3)));
+        assertEquals(0, state.addCard(Card.of(6, 0)));
+        assertEquals(3, state.addCard(Card.of(4, 2)));
+        assertEquals(25, state.getSum());
+        assertEquals(2, state.addCard(Card.of(6, 3)));
+        assertEquals(31, state.getSum());
+
+        state.reset();
+        assertEquals(0, state.getSum());
+        assertEquals(0, state.addCard(Card.of(9, 0)));
+    }
+
+    /*
+    Expected: pointsFor returns what addCard would return, without changing the state.
+        After 5 and 5 (sum 10): another 5 earns 8 (fifteen and three of a kind), a 4 earns 0.
+     */
+    @Test
+    void pointsFor() {
+        PeggingState state = PeggingState.of();
+        state.addCard(5);
+        state.addCard(5);
+
+        assertEquals(8, state.pointsFor(5));
+        assertEquals(0, state.pointsFor(4));
+        assertEquals(10, state.getSum());
+        assertEquals(2, state.size());
+        assertEquals(2, state.getMultiplesPoints());
+        assertEquals(8, state.addCard(5));
+    }
+
+    /*
+    Expected:
+        - startNewCount starts the count from 0, so earlier cards no longer make pairs or runs
+        - restore goes back to a mark, even across a new count
+     */
+    @Test
+    void startNewCountAndRestore() {
+        PeggingState state = PeggingState.of();
+        state.addCard(10);
+        state.addCard(10);
+        state.addCard(11);
+        long mark = state.mark();
+
+        state.startNewCount();
+        assertEquals(0, state.getSum());
+        assertEquals(0, state.size());
+        assertEquals(0, state.addCard(11));
+
+        state.restore(mark);
+        assertEquals(30, state.getSum());
+        assertEquals(3, state.size());
+        assertEquals(11, state.getValue(2));
+        assertEquals(2, state.addCard(1)); // 31
+    }
+
+    /*
+    Expected: for random sequences of played cards, every kind of points matches Game's
+        gotFifteen, gotMultiples and gotRun on the same cards.
+     */
+    @Test
+    void matchesGame() {
+        Game newGame = Game.of();
+        Random random = new Random(31);
+
+        for (int i = 0; i < 5000; i++) {
+            Deck deck = Deck.of();
+            deck.shuffle();
+            PeggingState state = PeggingState.of();
+            ArrayList<Card> playedCards = new ArrayList<>();
+            int cards = 1 + random.nextInt(8);
+
+            for (int j = 0; j < cards; j++) {
+                Card card = random.nextInt(3) == 0 && !playedCards.isEmpty()
+                        ? Card.of(playedCards.get(playedCards.size() - 1).getValue(), random.nextInt(4))
+                        : deck.getAllCards().remove(0);
+                playedCards.add(card);
+                state.addCard(card);
+
+                assertEquals(newGame.gotFifteen(playedCards), state.getFifteenPoints(), playedCards.toString());
+                assertEquals(newGame.gotMultiples(playedCards), state.getMultiplesPoints(), playedCards.toString());
+                assertEquals(newGame.gotRun(playedCards), state.getRunPoints(), playedCards.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.example;
+
+import java.util.SplittableRandom;
+
+/*
+This class is a Strategy that discards and plays at random. It is the baseline other strategies are measured against.
+
+Relies upon:
+    - DiscardOptimizer, to number the 15 possible discards
+ */
+
+public class RandomStrategy implements Strategy {
+
+    private final SplittableRandom random;
+
+    /*
+    Constructor.
+     */
+    private RandomStrategy(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /*
+    Factory method. Returns a RandomStrategy with its own random numbers, seeded from seed.
+     */
+    public static RandomStrategy of(long seed) {
+        return new RandomStrategy(new SplittableRandom(seed));
+    }
+
+    /*
+    Discards one of the 15 pairs of cards, chosen at random.
+     */
+    @Override
+    public long chooseDiscard(HeadlessGame game, int player) {
+        return DiscardOptimizer.discardOption(game.getHand(player), random.nextInt(DiscardOptimizer.OPTIONS));
+    }
+
+    /*
+    Plays one of the legal cards, chosen at random.
+     */
+    @Override
+    public int choosePlay(HeadlessGame game, int player) {
+        long legal = game.getLegalCards(player);
+        for (int skip = random.nextInt(Long.bitCount(legal)); skip > 0; skip--) {
+            legal &= legal - 1;
+        }
+        return Long.numberOfTrailingZeros(legal);
+    }
+
+}
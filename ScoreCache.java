@@ -0,0 +1,204 @@
+package com.demo.example;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+This class remembers the SHOW scores of recently scored hands, so hands that come up again (e.g., from bots and hints
+scoring the same popular hands) don't need to be scored again.
+
+Hands are looked up by their HandKey, packed in a long, so hands that only differ by suits (and have the same flush
+state) share an entry.
+
+The cache is split into sets of a few entries each (set-associative, like a CPU cache). A key always goes in the same
+set, chosen by its hash, and a set that is full drops its least recently used entry. So the cache never holds more
+than capacity scores, and finding or replacing an entry only looks at one set.
+
+Data:
+    - long[] keys (0 = empty), byte[] scores and long[] lastUsed, one slot per entry, set by set
+    - one ReentrantLock per stripe of sets, with that stripe's clock (for lastUsed) and hit and miss counts
+
+A lookup takes its set's lock once: it finds the entry, or scores the hand with ScoringEngine and stores it, before
+unlocking. Keys and scores are primitives, so lookups allocate nothing. Locks are ReentrantLocks rather than
+synchronized blocks, so virtual threads waiting for one don't pin their carrier threads.
+
+Responsibilities:
+    - Return the score of a Hand and faceUpCard, or of a hand bitmask and faceUpCard ordinal, from the cache or by
+        scoring it with ScoringEngine
+    - Return the hit/miss counts and hit rate
+    - Clear the cache
+
+Relies upon:
+    - HandKey for cache keys
+    - ScoringEngine to score hands that aren't in the cache
+ */
+
+public class ScoreCache {
+
+    // entries per set
+    private static final int WAYS = 4;
+
+    // most locks; sets are spread over them
+    private static final int STRIPES = 16;
+
+    private final int ways;
+    private final int setMask;
+    private final int stripeMask;
+    private final long[] keys;
+    private final byte[] scores;
+    private final long[] lastUsed;
+    private final ReentrantLock[] locks;
+    private final long[] clocks;
+    private final long[] hits;
+    private final long[] misses;
+
+    /*
+    Constructor. capacity must be at least 1. The cache holds capacity scores rounded down to a power of two sets of
+    WAYS entries (or a single set, if capacity is less than WAYS).
+     */
+    private ScoreCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.ways = Math.min(WAYS, capacity);
+        int sets = Integer.highestOneBit(capacity / ways);
+        this.setMask = sets - 1;
+        int stripes = Math.min(STRIPES, sets);
+        this.stripeMask = stripes - 1;
+
+        this.keys = new long[sets * ways];
+        this.scores = new byte[sets * ways];
+        this.lastUsed = new long[sets * ways];
+        this.locks = new ReentrantLock[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            locks[stripe] = new ReentrantLock();
+        }
+        this.clocks = new long[stripes];
+        this.hits = new long[stripes];
+        this.misses = new long[stripes];
+    }
+
+    /*
+    Factory method. Returns an empty cache holding at most capacity scores.
+     */
+    public static ScoreCache of(int capacity) {
+        return new ScoreCache(capacity);
+    }
+
+    /*
+    Returns the score of a Hand with the faceUpCard, the same as hand.calculatePoints(faceUpCard).
+     */
+    public int calculatePoints(Hand hand, Card faceUpCard) {
+        return calculatePoints(ScoringEngine.handMask(hand.getCards()), ScoringEngine.ordinal(faceUpCard));
+    }
+
+    /*
+    Returns the score of a hand bitmask with the faceUpCard's ordinal, the same as ScoringEngine.calculatePoints.
+     */
+    public int calculatePoints(long handMask, int faceUpOrdinal) {
+        long key = HandKey.pack(handMask, faceUpOrdinal);
+        int set = Long.hashCode(key * 0x9E3779B97F4A7C15L) & setMask;
+        int stripe = set & stripeMask;
+        int first = set * ways;
+
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            long now = ++clocks[stripe];
+            int oldest = first;
+            for (int entry = first; entry < first + ways; entry++) {
+                if (keys[entry] == key) {
+                    lastUsed[entry] = now;
+                    hits[stripe]++;
+                    return scores[entry];
+                }
+                if (lastUsed[entry] < lastUsed[oldest]) {
+                    oldest = entry;
+                }
+            }
+
+            misses[stripe]++;
+            int points = ScoringEngine.calculatePoints(handMask, faceUpOrdinal);
+            keys[oldest] = key;
+            scores[oldest] = (byte) points;
+            lastUsed[oldest] = now;
+            return points;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // returns the number of lookups that found a cached score
+    public long getHits() {
+        return sum(hits);
+    }
+
+    // returns the number of lookups that had to score the hand
+    public long getMisses() {
+        return sum(misses);
+    }
+
+    /*
+    Returns the share of lookups that found a cached score, between 0 and 1. Returns 0 before any lookups.
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long lookups = hitCount + getMisses();
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+
+    // returns the number of cached scores
+    public int size() {
+        int size = 0;
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                for (int set = stripe; set <= setMask; set += locks.length) {
+                    for (int entry = set * ways; entry < (set + 1) * ways; entry++) {
+                        if (keys[entry] != 0) {
+                            size++;
+                        }
+                    }
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return size;
+    }
+
+    /*
+    Removes all cached scores and resets the counters.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            locks[stripe].lock();
+        }
+        try {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(lastUsed, 0L);
+            Arrays.fill(clocks, 0L);
+            Arrays.fill(hits, 0L);
+            Arrays.fill(misses, 0L);
+        } finally {
+            for (int stripe = locks.length - 1; stripe >= 0; stripe--) {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    // adds up a per-stripe counter, taking each stripe's lock in turn
+    private long sum(long[] counters) {
+        long total = 0;
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                total += counters[stripe];
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return total;
+    }
+
+}
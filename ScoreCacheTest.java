@@ -0,0 +1,164 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreCacheTest {
+
+    /*
+    Expected:
+        - Hands that only differ by suit (with no flush) have equal keys and hash codes.
+        - A flush changes the key.
+        - Comparing keys doesn't change the order of the Hand's cards.
+     */
+    @Test
+    void handKey() {
+        ArrayList<Card> clubsAndHearts = new ArrayList<>();
+        clubsAndHearts.add(Card.of(5, 0));
+        clubsAndHearts.add(Card.of(5, 1));
+        clubsAndHearts.add(Card.of(11, 3));
+        clubsAndHearts.add(Card.of(13, 0));
+
+        ArrayList<Card> diamondsAndSpades = new ArrayList<>();
+        diamondsAndSpades.add(Card.of(13, 2));
+        diamondsAndSpades.add(Card.of(5, 3));
+        diamondsAndSpades.add(Card.of(5, 2));
+        diamondsAndSpades.add(Card.of(11, 1));
+
+        HandKey first = HandKey.of(Hand.of(clubsAndHearts), Card.of(2, 2));
+        HandKey second = HandKey.of(Hand.of(diamondsAndSpades), Card.of(2, 0));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(Card.of(5, 0), clubsAndHearts.get(0));
+
+        ArrayList<Card> flush = new ArrayList<>();
+        flush.add(Card.of(5, 0));
+        flush.add(Card.of(6, 0));
+        flush.add(Card.of(11, 0));
+        flush.add(Card.of(13, 0));
+        ArrayList<Card> noFlush = new ArrayList<>(flush);
+        noFlush.set(0, Card.of(5, 1));
+
+        assertNotEquals(HandKey.of(Hand.of(flush), Card.of(2, 2)), HandKey.of(Hand.of(noFlush), Card.of(2, 2)));
+        assertNotEquals(HandKey.of(Hand.of(flush), Card.of(2, 2)), HandKey.of(Hand.of(flush), Card.of(2, 0)));
+    }
+
+    /*
+    Expected:
+        - The cache returns the same scores as Hand.calculatePoints.
+        - Scoring a suit-swapped hand is a hit.
+        - The cache never holds more than its capacity.
+     */
+    @Test
+    void cachesScores() {
+        ScoreCache cache = ScoreCache.of(2);
+
+        ArrayList<Card> cards = new ArrayList<>();
+        cards.add(Card.of(5, 1));
+        cards.add(Card.of(5, 2));
+        cards.add(Card.of(5, 3));
+        cards.add(Card.of(10, 0));
+        Hand hand = Hand.of(cards);
+
+        assertEquals(hand.calculatePoints(Card.of(11, 1)), cache.calculatePoints(hand, Card.of(11, 1)));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        ArrayList<Card> swapped = new ArrayList<>();
+        swapped.add(Card.of(5, 0));
+        swapped.add(Card.of(5, 2));
+        swapped.add(Card.of(5, 3));
+        swapped.add(Card.of(10, 1));
+        assertEquals(20, cache.calculatePoints(Hand.of(swapped), Card.of(11, 0)));
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getHitRate());
+
+        cache.calculatePoints(hand, Card.of(1, 0));
+        cache.calculatePoints(hand, Card.of(2, 0));
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0.0, cache.getHitRate());
+    }
+
+    /*
+    Expected: looking up a hand bitmask allocates nothing, once warmed up, whether it hits or misses.
+     */
+    @Test
+    void lookupsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ScoreCache cache = ScoreCache.of(64);
+        ArrayList<Card> cards = new ArrayList<>();
+        cards.add(Card.of(5, 0));
+        cards.add(Card.of(6, 1));
+        cards.add(Card.of(7, 2));
+        cards.add(Card.of(10, 3));
+        long hand = ScoringEngine.handMask(cards);
+        int[] faceUps = new int[ScoringEngine.CARDS_IN_DECK - cards.size()];
+        long rest = ScoringEngine.FULL_DECK_MASK & ~hand;
+        for (int i = 0; i < faceUps.length; i++, rest &= rest - 1) {
+            faceUps[i] = Long.numberOfTrailingZeros(rest);
+        }
+
+        int checksum = 0;
+        for (int i = 0; i < 200000; i++) {
+            checksum += cache.calculatePoints(hand, faceUps[i % faceUps.length]);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100000; i++) {
+            checksum += cache.calculatePoints(hand, faceUps[i % faceUps.length]);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+
+    /*
+    Expected: threads sharing a cache always get ScoringEngine's scores, and every lookup is counted once.
+     */
+    @Test
+    void sharedBetweenThreads() throws Exception {
+        ScoreCache cache = ScoreCache.of(256);
+        int lookupsPerThread = 20000;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        ArrayList<Future<Integer>> wrong = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            Random random = new Random(thread);
+            wrong.add(executor.submit(() -> {
+                int mismatches = 0;
+                for (int i = 0; i < lookupsPerThread; i++) {
+                    long hand = 0;
+                    while (Long.bitCount(hand) < 4) {
+                        hand |= 1L << random.nextInt(20);
+                    }
+                    int faceUp = 20 + random.nextInt(32);
+                    if (cache.calculatePoints(hand, faceUp) != ScoringEngine.calculatePoints(hand, faceUp)) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        executor.shutdown();
+
+        for (Future<Integer> mismatches : wrong) {
+            assertEquals(0, mismatches.get());
+        }
+        assertEquals(8L * lookupsPerThread, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 256);
+    }
+}
@@ -0,0 +1,185 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/*
+This class holds the SHOW score of every possible four-card hand with every possible faceUpCard, read from a
+precomputed file.
+
+There are C(52, 4) = 270725 four-card hands and 48 possible faceUpCards for each, so the file holds 12994800 scores,
+one byte each (about 13 MB). The file is memory-mapped, so the operating system's page cache shares it between every
+JVM on the host, and a score costs a single read.
+
+File layout:
+    - 8 bytes: MAGIC
+    - 8 bytes: number of entries
+    - one byte per entry. Entry index = rank of the hand (see CardCombinations) * 48 + index of the faceUpCard among
+        the 48 cards not in the hand (its ordinal minus the number of hand cards with a lower ordinal).
+
+Responsibilities:
+    - Generate the file (build step: run main with the output path)
+    - Open and map the file, and check its header
+    - Return the score of a four-card hand and faceUpCard
+    - Return the score of any Hand, falling back to ScoringEngine for hands that aren't four cards, or when no table
+        file is configured
+
+Relies upon:
+    - ScoringEngine to calculate the scores written to the file, and as the fallback
+    - CardCombinations to number the hands
+ */
+
+public class ScoreTable {
+
+    public static final long MAGIC = 0x4352494253434F52L; // "CRIBSCOR"
+    public static final int HAND_SIZE = 4;
+    public static final int FACE_UP_CARDS = ScoringEngine.CARDS_IN_DECK - HAND_SIZE;
+    public static final long ENTRIES = CardCombinations.choose(ScoringEngine.CARDS_IN_DECK, HAND_SIZE) * FACE_UP_CARDS;
+
+    // system property holding the path of the table used by calculatePoints(Hand, Card)
+    public static final String PATH_PROPERTY = "cribbage.score-table";
+
+    private static final int HEADER_BYTES = 16;
+
+    private final MappedByteBuffer scores;
+
+    /*
+    Constructor. scores must be a mapped table file with a valid header.
+     */
+    private ScoreTable(MappedByteBuffer scores) {
+        this.scores = scores;
+    }
+
+    /*
+    Factory method. Maps the table file at path and returns the ScoreTable.
+    Throws IOException if the file can't be read, IllegalStateException if it isn't a score table.
+     */
+    public static ScoreTable of(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + ENTRIES) {
+                throw new IllegalStateException("Not a score table: " + path);
+            }
+
+            MappedByteBuffer scores = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (scores.getLong(0) != MAGIC || scores.getLong(8) != ENTRIES) {
+                throw new IllegalStateException("Not a score table: " + path);
+            }
+            return new ScoreTable(scores);
+        }
+    }
+
+    /*
+    Returns the table named by the cribbage.score-table system property, mapped once and shared.
+    Returns null if the property isn't set or the file can't be used.
+     */
+    public static ScoreTable shared() {
+        return SharedTable.TABLE;
+    }
+
+    // loaded the first time shared() is called; the JVM makes sure that only happens once
+    private static final class SharedTable {
+        private static final ScoreTable TABLE = load();
+
+        private static ScoreTable load() {
+            String path = System.getProperty(PATH_PROPERTY);
+            if (path == null) {
+                return null;
+            }
+            try {
+                return of(Paths.get(path));
+            } catch (IOException | IllegalStateException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+    }
+
+    /*
+    Returns the score of a Hand with the faceUpCard, the same as hand.calculatePoints(faceUpCard).
+    Uses the shared table for four-card hands when one is configured, otherwise ScoringEngine.
+     */
+    public static int calculatePoints(Hand hand, Card faceUpCard) {
+        long handMask = ScoringEngine.handMask(hand.getCards());
+        int faceUpOrdinal = ScoringEngine.ordinal(faceUpCard);
+
+        ScoreTable table = shared();
+        if (table != null && Long.bitCount(handMask) == HAND_SIZE && hand.getCards().size() == HAND_SIZE) {
+            return table.lookup(handMask, faceUpOrdinal);
+        }
+        return ScoringEngine.calculatePoints(handMask, faceUpOrdinal);
+    }
+
+    /*
+    Returns the score of a four-card hand bitmask with the faceUpCard's ordinal.
+     */
+    public int lookup(long handMask, int faceUpOrdinal) {
+        return scores.get((int) (HEADER_BYTES + index(handMask, faceUpOrdinal)));
+    }
+
+    /*
+    Returns the entry index of a four-card hand and faceUpCard.
+     */
+    static long index(long handMask, int faceUpOrdinal) {
+        if (Long.bitCount(handMask) != HAND_SIZE || (handMask & (1L << faceUpOrdinal)) != 0) {
+            throw new IllegalArgumentException("Need four cards and a faceUpCard that isn't one of them");
+        }
+
+        int handCardsBelow = Long.bitCount(handMask & ((1L << faceUpOrdinal) - 1));
+        return CardCombinations.rank(handMask) * FACE_UP_CARDS + (faceUpOrdinal - handCardsBelow);
+    }
+
+    /*
+    Calculates every score and writes the table file to path. Hands are scored in parallel.
+     */
+    public static void generate(Path path) throws IOException {
+        int hands = (int) CardCombinations.choose(ScoringEngine.CARDS_IN_DECK, HAND_SIZE);
+        byte[] table = new byte[(int) ENTRIES];
+
+        IntStream.range(0, hands).parallel().forEach(rank -> {
+            long handMask = CardCombinations.unrank(HAND_SIZE, rank);
+            int entry = rank * FACE_UP_CARDS;
+            for (int faceUp = 0; faceUp < ScoringEngine.CARDS_IN_DECK; faceUp++) {
+                if ((handMask & (1L << faceUp)) == 0) {
+                    table[entry++] = (byte) ScoringEngine.calculatePoints(handMask, faceUp);
+                }
+            }
+        });
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putLong(MAGIC).putLong(ENTRIES).flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            channel.write(ByteBuffer.wrap(table));
+        }
+    }
+
+    /*
+    Build step. Usage: ScoreTable <output file>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: ScoreTable <output file>");
+            return;
+        }
+
+        Path path = Paths.get(args[0]);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        long start = System.nanoTime();
+        generate(path);
+        System.out.println("Wrote " + ENTRIES + " scores to " + path + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreTableTest {
+
+    /*
+    Expected: rank and unrank are opposites, and every four-card hand gets a different rank
+        between 0 and C(52, 4) - 1.
+     */
+    @Test
+    void combinationRanks() {
+        assertEquals(270725, CardCombinations.choose(52, 4));
+        assertEquals(0, CardCombinations.rank(0xFL));
+        assertEquals(270724, CardCombinations.rank(0xFL << 48));
+
+        HashSet<Long> ranks = new HashSet<>();
+        for (int rank = 0; rank < 270725; rank += 97) {
+            long hand = CardCombinations.unrank(4, rank);
+            assertEquals(4, Long.bitCount(hand));
+            assertEquals(rank, CardCombinations.rank(hand));
+            assertTrue(ranks.add(CardCombinations.rank(hand)));
+        }
+    }
+
+    /*
+    Expected: a generated table returns the same scores as ScoringEngine, and a file
+        that isn't a score table is rejected.
+     */
+    @Test
+    void generateAndLookup(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("scores.bin");
+        ScoreTable.generate(path);
+        ScoreTable table = ScoreTable.of(path);
+
+        Random random = new Random(4);
+        for (int i = 0; i < 20000; i++) {
+            long hand = 0L;
+            while (Long.bitCount(hand) < 4) {
+                hand |= 1L << random.nextInt(52);
+            }
+            int faceUp;
+            do {
+                faceUp = random.nextInt(52);
+            } while ((hand & (1L << faceUp)) != 0);
+
+            assertEquals(ScoringEngine.calculatePoints(hand, faceUp), table.lookup(hand, faceUp));
+        }
+
+        Path notATable = directory.resolve("other.bin");
+        Files.write(notATable, new byte[16]);
+        assertThrows(IllegalStateException.class, () -> ScoreTable.of(notATable));
+    }
+}
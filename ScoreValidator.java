@@ -0,0 +1,332 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/*
+This class checks faster scorers against the reference, Hand.calculatePoints, on every possible four-card hand with
+every possible faceUpCard: C(52, 4) * 48 = 12994800 combinations.
+
+Hands are numbered by CardCombinations and split into equal ranges, one per worker thread. Each worker builds the
+Hand once per four-card hand, scores it with all 48 faceUpCards through the reference and through every engine being
+checked, and keeps its own Report. The reports are added up at the end.
+
+Responsibilities:
+    - Enumerate every (hand, faceUpCard) combination, or a range of hands, across a number of threads
+    - Report divergences between each engine and the reference, with the first few examples
+    - Report the distribution of reference scores (how many 0s, ... how many 29s) and combinations per second
+
+Relies upon:
+    - Hand, for the reference scores
+    - CardCombinations to enumerate the hands
+    - ScoringEngine, ScoreTable and VectorScoring as the engines that can be checked
+ */
+
+public class ScoreValidator {
+
+    public static final int MAX_SCORE = 29;
+    public static final int HANDS = (int) CardCombinations.choose(ScoringEngine.CARDS_IN_DECK, ScoreTable.HAND_SIZE);
+
+    // examples kept per engine
+    private static final int MAX_EXAMPLES = 10;
+
+    /*
+    An engine being checked. Scores a four-card hand with each faceUpCard in faceUpOrdinals, into scores.
+    A worker creates its own Engine, so an Engine may keep buffers.
+     */
+    public interface Engine {
+        void score(long handMask, int[] faceUpOrdinals, int[] scores);
+    }
+
+    private final Map<String, Supplier<Engine>> engines;
+    private final int threads;
+
+    /*
+    Constructor.
+    engines: creates a new Engine for each worker, by name.
+     */
+    private ScoreValidator(Map<String, Supplier<Engine>> engines, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread");
+        }
+        this.engines = engines;
+        this.threads = threads;
+    }
+
+    /*
+    Factory method. Returns a ScoreValidator checking engines (by name) on threads workers.
+     */
+    public static ScoreValidator of(Map<String, Supplier<Engine>> engines, int threads) {
+        return new ScoreValidator(new LinkedHashMap<>(engines), threads);
+    }
+
+    /*
+    This class holds the results of a validation (or of one worker's share of it).
+     */
+    public static final class Report {
+        private final String[] names;
+        private long combinations;
+        private final long[] distribution = new long[MAX_SCORE + 1];
+        private final long[] divergences;
+        private final List<List<String>> examples = new ArrayList<>();
+        private long elapsedNanos;
+
+        private Report(String[] names) {
+            this.names = names;
+            this.divergences = new long[names.length];
+            for (int i = 0; i < names.length; i++) {
+                examples.add(new ArrayList<>());
+            }
+        }
+
+        // adds a divergence between an engine and the reference
+        private void diverged(int engine, long handMask, int faceUpOrdinal, int expected, int actual) {
+            divergences[engine]++;
+            if (examples.get(engine).size() < MAX_EXAMPLES) {
+                examples.get(engine).add(describe(handMask) + " with " + CardRegistry.fromOrdinal(faceUpOrdinal)
+                        + ": reference " + expected + ", " + names[engine] + " " + actual);
+            }
+        }
+
+        // adds another report's results
+        private void add(Report other) {
+            combinations += other.combinations;
+            for (int score = 0; score <= MAX_SCORE; score++) {
+                distribution[score] += other.distribution[score];
+            }
+            for (int engine = 0; engine < names.length; engine++) {
+                divergences[engine] += other.divergences[engine];
+                List<String> kept = examples.get(engine);
+                for (String example : other.examples.get(engine)) {
+                    if (kept.size() < MAX_EXAMPLES) {
+                        kept.add(example);
+                    }
+                }
+            }
+        }
+
+        public long getCombinations() {
+            return this.combinations;
+        }
+
+        // returns the number of combinations the reference scored score (0-29)
+        public long getCount(int score) {
+            return this.distribution[score];
+        }
+
+        // returns the number of combinations where an engine (by name) didn't match the reference
+        public long getDivergences(String name) {
+            return this.divergences[indexOf(name)];
+        }
+
+        // returns up to 10 of an engine's divergences, described
+        public List<String> getExamples(String name) {
+            return new ArrayList<>(this.examples.get(indexOf(name)));
+        }
+
+        // returns true if every engine matched the reference everywhere
+        public boolean isValid() {
+            for (long count : divergences) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public double getCombinationsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : combinations * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unknown engine: " + name);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder output = new StringBuilder();
+            output.append(String.format("%d combinations in %.2f s (%.0f combinations/s)%n",
+                    combinations, elapsedNanos / 1e9, getCombinationsPerSecond()));
+            for (int engine = 0; engine < names.length; engine++) {
+                output.append(String.format("%s: %d divergences%n", names[engine], divergences[engine]));
+                for (String example : examples.get(engine)) {
+                    output.append("    ").append(example).append(System.lineSeparator());
+                }
+            }
+            output.append("Score distribution:").append(System.lineSeparator());
+            for (int score = 0; score <= MAX_SCORE; score++) {
+                if (distribution[score] != 0) {
+                    output.append(String.format("%4d: %d%n", score, distribution[score]));
+                }
+            }
+            return output.toString();
+        }
+    }
+
+    /*
+    Checks every four-card hand and returns the Report.
+     */
+    public Report run() throws InterruptedException {
+        return run(0, HANDS);
+    }
+
+    /*
+    Checks the hands ranked fromRank (inclusive) to toRank (exclusive) and returns the Report.
+     */
+    public Report run(int fromRank, int toRank) throws InterruptedException {
+        String[] names = engines.keySet().toArray(new String[0]);
+        int hands = toRank - fromRank;
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<Report>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            int first = fromRank;
+            for (int worker = 0; worker < threads; worker++) {
+                int share = hands / threads + (worker < hands % threads ? 1 : 0);
+                int from = first;
+                Engine[] workerEngines = new Engine[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    workerEngines[i] = engines.get(names[i]).get();
+                }
+                futures.add(workers.submit(() -> checkShare(names, workerEngines, from, from + share)));
+                first += share;
+            }
+
+            Report total = new Report(names);
+            for (Future<Report> future : futures) {
+                total.add(future.get());
+            }
+            total.elapsedNanos = System.nanoTime() - start;
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // checks one worker's range of hands
+    private static Report checkShare(String[] names, Engine[] engines, int fromRank, int toRank) {
+        Report report = new Report(names);
+        int[] faceUpOrdinals = new int[ScoreTable.FACE_UP_CARDS];
+        int[] expected = new int[ScoreTable.FACE_UP_CARDS];
+        int[] actual = new int[ScoreTable.FACE_UP_CARDS];
+
+        for (int rank = fromRank; rank < toRank; rank++) {
+            long handMask = CardCombinations.unrank(ScoreTable.HAND_SIZE, rank);
+
+            ArrayList<Card> cards = new ArrayList<>();
+            for (long remaining = handMask; remaining != 0; remaining &= remaining - 1) {
+                cards.add(CardRegistry.fromOrdinal(Long.numberOfTrailingZeros(remaining)));
+            }
+            Hand hand = Hand.of(cards);
+
+            int faceUps = 0;
+            for (int faceUp = 0; faceUp < ScoringEngine.CARDS_IN_DECK; faceUp++) {
+                if ((handMask & (1L << faceUp)) == 0) {
+                    faceUpOrdinals[faceUps] = faceUp;
+                    expected[faceUps] = hand.calculatePoints(CardRegistry.fromOrdinal(faceUp));
+                    report.distribution[expected[faceUps]]++;
+                    faceUps++;
+                }
+            }
+            report.combinations += faceUps;
+
+            for (int engine = 0; engine < engines.length; engine++) {
+                engines[engine].score(handMask, faceUpOrdinals, actual);
+                for (int i = 0; i < faceUps; i++) {
+                    if (actual[i] != expected[i]) {
+                        report.diverged(engine, handMask, faceUpOrdinals[i], expected[i], actual[i]);
+                    }
+                }
+            }
+        }
+        return report;
+    }
+
+    // describes a hand bitmask as its cards
+    private static String describe(long handMask) {
+        ArrayList<Card> cards = new ArrayList<>();
+        for (long remaining = handMask; remaining != 0; remaining &= remaining - 1) {
+            cards.add(CardRegistry.fromOrdinal(Long.numberOfTrailingZeros(remaining)));
+        }
+        return cards.toString();
+    }
+
+    /*
+    Returns a factory for an engine by name: "engine" (ScoringEngine), "table" (a ScoreTable file at tablePath) or
+    "vector" (VectorScoring, which uses its SIMD path when it is switched on).
+     */
+    public static Supplier<Engine> engine(String name, String tablePath) throws IOException {
+        switch (name) {
+            case "engine":
+                return () -> (handMask, faceUpOrdinals, scores) -> {
+                    for (int i = 0; i < faceUpOrdinals.length; i++) {
+                        scores[i] = ScoringEngine.calculatePoints(handMask, faceUpOrdinals[i]);
+                    }
+                };
+            case "table":
+                if (tablePath == null) {
+                    throw new IllegalArgumentException("The table engine needs a score table file");
+                }
+                ScoreTable table = ScoreTable.of(Paths.get(tablePath));
+                return () -> (handMask, faceUpOrdinals, scores) -> {
+                    for (int i = 0; i < faceUpOrdinals.length; i++) {
+                        scores[i] = table.lookup(handMask, faceUpOrdinals[i]);
+                    }
+                };
+            case "vector":
+                return () -> {
+                    VectorScoring.Batch batch = VectorScoring.Batch.of(ScoreTable.FACE_UP_CARDS);
+                    return (handMask, faceUpOrdinals, scores) -> {
+                        batch.clear();
+                        for (int faceUpOrdinal : faceUpOrdinals) {
+                            batch.add(handMask, faceUpOrdinal, false);
+                        }
+                        VectorScoring.score(batch, scores);
+                    };
+                };
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + name);
+        }
+    }
+
+    /*
+    Usage: ScoreValidator [threads] [engines, comma separated] [score table file]
+    Engines are "engine", "table" and "vector" (all but "table" by default). Exits with status 1 on any divergence.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        String[] names = (args.length > 1 ? args[1] : "engine,vector").split(",");
+        String tablePath = args.length > 2 ? args[2] : null;
+
+        Map<String, Supplier<Engine>> engines = new LinkedHashMap<>();
+        for (String name : names) {
+            engines.put(name, engine(name, tablePath));
+        }
+
+        System.out.println("Checking " + String.join(", ", names) + " against Hand.calculatePoints on "
+                + threads + " threads" + (VectorScoring.isEnabled() ? " (vector path on)" : ""));
+        Report report = ScoreValidator.of(engines, threads).run();
+        System.out.print(report);
+        if (!report.isValid()) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreValidatorTest {
+
+    /*
+    Expected: ScoringEngine and VectorScoring match Hand.calculatePoints on the first 3000 hands with every
+        faceUpCard, split over 3 threads, and the distribution adds up to every combination checked.
+     */
+    @Test
+    void enginesMatchReference() throws IOException, InterruptedException {
+        Map<String, Supplier<ScoreValidator.Engine>> engines = new LinkedHashMap<>();
+        engines.put("engine", ScoreValidator.engine("engine", null));
+        engines.put("vector", ScoreValidator.engine("vector", null));
+
+        ScoreValidator.Report report = ScoreValidator.of(engines, 3).run(0, 3000);
+
+        assertTrue(report.isValid(), report.toString());
+        assertEquals(3000L * ScoreTable.FACE_UP_CARDS, report.getCombinations());
+        long total = 0;
+        for (int score = 0; score <= ScoreValidator.MAX_SCORE; score++) {
+            total += report.getCount(score);
+        }
+        assertEquals(report.getCombinations(), total);
+    }
+
+    /*
+    Expected: an engine that is off by one whenever the faceUpCard is a King diverges on 4 of the 48 faceUpCards of
+        every hand without Kings, and the report keeps 10 examples.
+     */
+    @Test
+    void reportsDivergences() throws InterruptedException {
+        Map<String, Supplier<ScoreValidator.Engine>> engines = new LinkedHashMap<>();
+        engines.put("broken", () -> (handMask, faceUpOrdinals, scores) -> {
+            for (int i = 0; i < faceUpOrdinals.length; i++) {
+                int points = ScoringEngine.calculatePoints(handMask, faceUpOrdinals[i]);
+                scores[i] = ScoringEngine.valueOf(faceUpOrdinals[i]) == 13 ? points + 1 : points;
+            }
+        });
+
+        ScoreValidator.Report report = ScoreValidator.of(engines, 2).run(0, 100);
+
+        assertFalse(report.isValid());
+        assertEquals(100 * 4, report.getDivergences("broken"));
+        assertEquals(10, report.getExamples("broken").size());
+    }
+
+    /*
+    Expected: the hand 5 of Clubs, 5 of Hearts, 5 of Diamonds, Jack of Spades scores 28 only with the 5 of Spades.
+        Hand.calculatePoints doesn't count nobs, so the reference never scores 29.
+     */
+    @Test
+    void bestHand() throws InterruptedException {
+        long hand = 0L;
+        hand |= 1L << ScoringEngine.ordinal(5, 0);
+        hand |= 1L << ScoringEngine.ordinal(5, 1);
+        hand |= 1L << ScoringEngine.ordinal(5, 2);
+        hand |= 1L << ScoringEngine.ordinal(11, 3);
+        int rank = (int) CardCombinations.rank(hand);
+
+        ScoreValidator.Report report = ScoreValidator.of(new LinkedHashMap<>(), 1).run(rank, rank + 1);
+
+        assertEquals(1, report.getCount(28));
+        assertEquals(0, report.getCount(29));
+        assertEquals(ScoreTable.FACE_UP_CARDS, report.getCombinations());
+    }
+}
@@ -0,0 +1,313 @@
+package com.demo.example;
+
+import java.util.ArrayList;
+
+/*
+This class scores a hand for the SHOW stage without building any intermediate collections.
+
+Encoding:
+    - A Card is encoded as an ordinal between 0 and 51: (value - 1) * 4 + suit, where suit uses the same mapping as
+        Card.of (CLUBS = 0, HEARTS = 1, DIAMONDS = 2, SPADES = 3). Ordinals follow the order Deck creates its cards in
+        (Ace of Clubs = 0, Ace of Hearts = 1, ... King of Spades = 51).
+    - A hand is encoded as a long bitmask with the bit at each card's ordinal set. The four cards of a value sit next to
+        each other, so the number of cards of one value is the bit count of a 4-bit group.
+
+Responsibilities:
+    - Convert Cards and Hands to ordinals and bitmasks
+    - Calculate the points earned by a hand and a faceUpCard, returning exactly what Hand.calculatePoints returns:
+        fifteens, pairs/three of a kind/four of a kind, runs, and flushes
+    - Calculate the points earned by a crib, where a flush only counts when the faceUpCard shares its suit
+    - Calculate nobs (Jack in hand matching the faceUpCard's suit). Hand.calculatePoints doesn't count nobs, so it is
+        kept separate and not included in calculatePoints.
+
+Relies upon:
+    - Card, for getValue, getSuit and getScoringValue
+    - Hand, for getCards
+ */
+
+public final class ScoringEngine {
+
+    public static final int CARDS_IN_DECK = 52;
+
+    // bit 0 of every value's 4-bit group. Shifting by a suit gives every card of that suit.
+    private static final long CLUBS_MASK = 0x1111111111111L;
+
+    // most cards countFifteensPoints(long) counts in 8-bit lanes
+    private static final int MAX_PACKED_FIFTEENS_CARDS = 8;
+
+    // every value's 4-bit group set, i.e. all 52 cards
+    public static final long FULL_DECK_MASK = (1L << CARDS_IN_DECK) - 1;
+
+    private ScoringEngine() {
+    }
+
+    /*
+    Returns the ordinal (0-51) of a Card.
+
+    Examples:
+        - Ace of Clubs returns 0
+        - 2 of Hearts returns 5
+        - King of Spades returns 51
+     */
+    public static int ordinal(Card card) {
+        return ordinal(card.getValue(), card.getSuit().ordinal());
+    }
+
+    /*
+    Returns the ordinal (0-51) of a value (1-13) and suit (0-3), using the same mapping as Card.of.
+     */
+    public static int ordinal(int value, int suit) {
+        return ((value - 1) << 2) | suit;
+    }
+
+    // returns the value (1-13) of an ordinal
+    public static int valueOf(int ordinal) {
+        return (ordinal >>> 2) + 1;
+    }
+
+    // returns the suit (0-3) of an ordinal
+    public static int suitOf(int ordinal) {
+        return ordinal & 3;
+    }
+
+    // returns the scoring value (1-10) of an ordinal. Jack, Queen and King are all 10.
+    public static int scoringValueOf(int ordinal) {
+        return Math.min(valueOf(ordinal), 10);
+    }
+
+    /*
+    Returns the bitmask of an ArrayList of Cards. Indexed loop so no Iterator is created.
+     */
+    public static long handMask(ArrayList<Card> cards) {
+        long mask = 0L;
+        for (int i = 0; i < cards.size(); i++) {
+            mask |= 1L << ordinal(cards.get(i));
+        }
+        return mask;
+    }
+
+    /*
+    Returns the score of a Hand with the faceUpCard. Same result as hand.calculatePoints(faceUpCard).
+     */
+    public static int calculatePoints(Hand hand, Card faceUpCard) {
+        return calculatePoints(handMask(hand.getCards()), ordinal(faceUpCard));
+    }
+
+    /*
+    Returns the score of a hand bitmask with the faceUpCard's ordinal.
+
+    Score = fifteens + pairs + runs + flush, each counted the same way as in Hand.
+    The faceUpCard must not also be in the hand.
+     */
+    public static int calculatePoints(long handMask, int faceUpOrdinal) {
+        long allCards = handMask | (1L << faceUpOrdinal);
+
+        return countFifteensPoints(allCards)
+                + countPairsPoints(allCards)
+                + countRunPoints(allCards)
+                + countFlushPoints(handMask, faceUpOrdinal);
+    }
+
+    /*
+    Returns the score of a crib Hand with the faceUpCard, with the crib flush rule of calculateCribPoints(long, int).
+     */
+    public static int calculateCribPoints(Hand crib, Card faceUpCard) {
+        return calculateCribPoints(handMask(crib.getCards()), ordinal(faceUpCard));
+    }
+
+    /*
+    Returns the score of a crib bitmask with the faceUpCard's ordinal.
+
+    Same as calculatePoints except for flushes: a crib only scores a flush when all of its cards and the faceUpCard
+    share a suit (5 points for a four-card crib). Four matching crib cards on their own score nothing.
+     */
+    public static int calculateCribPoints(long cribMask, int faceUpOrdinal) {
+        long allCards = cribMask | (1L << faceUpOrdinal);
+
+        return countFifteensPoints(allCards)
+                + countPairsPoints(allCards)
+                + countRunPoints(allCards)
+                + countCribFlushPoints(cribMask, faceUpOrdinal);
+    }
+
+    /*
+    Returns the number of cards of a value (1-13) in a bitmask.
+     */
+    public static int countOfValue(long cards, int value) {
+        return Long.bitCount((cards >>> ((value - 1) << 2)) & 0xF);
+    }
+
+    /*
+    Calculates the points earned by unique card combinations that sum to 15: 2 points each.
+
+    Runs the same table as addToFifteensTable without allocating it: the 16 counters are 8-bit lanes of two longs,
+    sums 0-7 in low and 8-15 in high. Adding a card with scoring value v adds the table to itself shifted up by v lanes,
+    which is the "from 15 down to v" loop done for every sum at once. A lane holds the number of subsets reaching one
+    sum, which stays under 256 for up to 8 cards. Bigger bitmasks walk every subset instead.
+     */
+    static int countFifteensPoints(long cards) {
+        if (Long.bitCount(cards) > MAX_PACKED_FIFTEENS_CARDS) {
+            return countFifteensPointsBySubsets(cards);
+        }
+
+        long low = 1L;
+        long high = 0L;
+        for (long remaining = cards; remaining != 0; remaining &= remaining - 1) {
+            int shift = scoringValueOf(Long.numberOfTrailingZeros(remaining)) << 3;
+            if (shift < Long.SIZE) {
+                high += (high << shift) | (low >>> (Long.SIZE - shift));
+                low += low << shift;
+            } else {
+                high += low << (shift - Long.SIZE);
+            }
+        }
+
+        return (int) (high >>> 56) * 2;
+    }
+
+    // walks every non-empty subset with the (subset - 1) & cards trick, adding up the scoring values of its cards
+    private static int countFifteensPointsBySubsets(long cards) {
+        int fifteens = 0;
+
+        for (long subset = cards; subset != 0; subset = (subset - 1) & cards) {
+            int sum = 0;
+            long remaining = subset;
+            while (remaining != 0 && sum <= 15) {
+                sum += scoringValueOf(Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+            if (sum == 15 && remaining == 0) {
+                fifteens++;
+            }
+        }
+
+        return fifteens * 2;
+    }
+
+    /*
+    Returns the points earned by unique combinations of a Hand's cards and the faceUpCard that sum to 15.
+    Same result as Hand.calculateFifteensPoints, for any number of cards.
+     */
+    public static int calculateFifteensPoints(Hand hand, Card faceUpCard) {
+        ArrayList<Card> cards = hand.getCards();
+        int[] ways = new int[16];
+        ways[0] = 1;
+
+        for (int i = 0; i < cards.size(); i++) {
+            addToFifteensTable(ways, cards.get(i).getScoringValue());
+        }
+        addToFifteensTable(ways, faceUpCard.getScoringValue());
+
+        return ways[15] * 2;
+    }
+
+    /*
+    Counts fifteens with a small dynamic program instead of walking all 2^n subsets.
+
+    ways[sum] holds the number of subsets of the cards seen so far whose scoring values add up to sum (0-15). Adding a
+    card with scoring value v means every subset summing to (sum - v) can now also reach sum. Going from 15 down to v
+    makes sure each card is used at most once per subset. Sums over 15 can never come back down, so they are dropped.
+
+    Example: cards 5, 10, Jack
+        - start:       ways[0] = 1
+        - add 5:       ways[0] = 1, ways[5] = 1
+        - add 10:      ways[10] = 1, ways[15] = 1
+        - add Jack:    ways[10] = 2, ways[15] = 2  --> two fifteens
+     */
+    private static void addToFifteensTable(int[] ways, int scoringValue) {
+        for (int sum = 15; sum >= scoringValue; sum--) {
+            ways[sum] += ways[sum - scoringValue];
+        }
+    }
+
+    /*
+    Calculates the points earned by pairs, three of a kind and four of a kind.
+
+    Matches Hand.countPairsPoints, which returns as soon as it finds the lowest value that has more than one card:
+    only that value is counted (2, 6 or 12 points).
+     */
+    static int countPairsPoints(long cards) {
+        for (int value = 1; value <= 13; value++) {
+            switch (countOfValue(cards, value)) {
+                case 2:
+                    return 2;
+                case 3:
+                    return 6;
+                case 4:
+                    return 12;
+                default:
+                    break;
+            }
+        }
+        return 0;
+    }
+
+    /*
+    Calculates the points earned by runs.
+
+    Matches Hand.countRunPoints: cards are split into groups of consecutive values (duplicates allowed). A group with at
+    least 3 distinct values scores (distinct values) * (duplicates + 1).
+     */
+    static int countRunPoints(long cards) {
+        int totalRunPoints = 0;
+        int distinct = 0;
+        int size = 0;
+
+        for (int value = 1; value <= 14; value++) {
+            int count = value <= 13 ? countOfValue(cards, value) : 0;
+            if (count > 0) {
+                distinct++;
+                size += count;
+            } else {
+                if (distinct >= 3) {
+                    totalRunPoints += distinct * (size - distinct + 1);
+                }
+                distinct = 0;
+                size = 0;
+            }
+        }
+
+        return totalRunPoints;
+    }
+
+    /*
+    Calculates the points earned for a flush. Matches Hand.countFlushPoints: every card in the hand must share a suit,
+    and the faceUpCard adds a point if it matches too.
+     */
+    static int countFlushPoints(long handMask, int faceUpOrdinal) {
+        if (handMask == 0) {
+            return 0;
+        }
+
+        int flushSuit = suitOf(Long.numberOfTrailingZeros(handMask));
+        long suitCards = CLUBS_MASK << flushSuit;
+
+        if ((handMask & ~suitCards) != 0) {
+            return 0;
+        }
+
+        int totalMatching = Long.bitCount(handMask);
+        if (suitOf(faceUpOrdinal) == flushSuit) {
+            totalMatching += 1;
+        }
+        return totalMatching;
+    }
+
+    /*
+    Calculates the points earned for a crib flush: every crib card and the faceUpCard must share a suit.
+     */
+    static int countCribFlushPoints(long cribMask, int faceUpOrdinal) {
+        int handFlushPoints = countFlushPoints(cribMask, faceUpOrdinal);
+        return handFlushPoints > Long.bitCount(cribMask) ? handFlushPoints : 0;
+    }
+
+    /*
+    Returns 1 point if the hand holds the Jack of the faceUpCard's suit (nobs), otherwise 0.
+    Not part of calculatePoints, because Hand.calculatePoints doesn't count nobs.
+     */
+    public static int countNobs(long handMask, int faceUpOrdinal) {
+        int jackOfSuit = ordinal(11, suitOf(faceUpOrdinal));
+        return (int) ((handMask >>> jackOfSuit) & 1L);
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoringEngineTest {
+
+    /*
+    Expected: ordinals follow the order Deck creates its cards in.
+
+    Examples:
+        - Ace of Clubs is 0, Ace of Hearts is 1
+        - King of Spades is 51
+        - value and suit can be recovered from the ordinal
+     */
+    @Test
+    void ordinal() {
+        assertEquals(0, ScoringEngine.ordinal(Card.of(1, 0)));
+        assertEquals(1, ScoringEngine.ordinal(Card.of(1, 1)));
+        assertEquals(51, ScoringEngine.ordinal(Card.of(13, 3)));
+
+        int jackOfDiamonds = ScoringEngine.ordinal(Card.of(11, 2));
+        assertEquals(11, ScoringEngine.valueOf(jackOfDiamonds));
+        assertEquals(2, ScoringEngine.suitOf(jackOfDiamonds));
+        assertEquals(10, ScoringEngine.scoringValueOf(jackOfDiamonds));
+    }
+
+    /*
+    Expected to return the same 14 points as HandTest.testHandScoringFourteen.
+
+    Cards: 7 of Diamonds, 8 of Clubs, 8 of Diamonds, 9 of Hearts, 10 of Hearts (faceUpCard)
+     */
+    @Test
+    void calculatePointsFourteen() {
+        ArrayList<Card> cards = new ArrayList<>();
+        cards.add(Card.of(7, 2));
+        cards.add(Card.of(8, 2));
+        cards.add(Card.of(8, 0));
+        cards.add(Card.of(9, 1));
+        Card tenHearts = Card.of(10, 1);
+
+        long hand = ScoringEngine.handMask(cards);
+        long allCards = hand | (1L << ScoringEngine.ordinal(tenHearts));
+
+        assertEquals(4, ScoringEngine.countFifteensPoints(allCards));
+        assertEquals(8, ScoringEngine.countRunPoints(allCards));
+        assertEquals(2, ScoringEngine.countPairsPoints(allCards));
+        assertEquals(0, ScoringEngine.countFlushPoints(hand, ScoringEngine.ordinal(tenHearts)));
+        assertEquals(14, ScoringEngine.calculatePoints(Hand.of(cards), tenHearts));
+    }
+
+    /*
+    Expected:
+        - four Queens and a 5 score 20 points
+        - three 5s, a 10 and a Jack score 20 points
+        - a Spades flush with a Spade faceUpCard scores 5 points
+     */
+    @Test
+    void calculatePointsKnownHands() {
+        ArrayList<Card> queens = new ArrayList<>();
+        for (int suit = 0; suit < 4; suit++) {
+            queens.add(Card.of(12, suit));
+        }
+        assertEquals(20, ScoringEngine.calculatePoints(Hand.of(queens), Card.of(5, 0)));
+
+        ArrayList<Card> fives = new ArrayList<>();
+        fives.add(Card.of(5, 1));
+        fives.add(Card.of(5, 2));
+        fives.add(Card.of(5, 3));
+        fives.add(Card.of(10, 0));
+        assertEquals(20, ScoringEngine.calculatePoints(Hand.of(fives), Card.of(11, 1)));
+
+        ArrayList<Card> spades = new ArrayList<>();
+        spades.add(Card.of(2, 3));
+        spades.add(Card.of(7, 3));
+        spades.add(Card.of(9, 3));
+        spades.add(Card.of(11, 3));
+        assertEquals(5, ScoringEngine.calculatePoints(Hand.of(spades), Card.of(1, 3)));
+    }
+
+    /*
+    Expected: 1 point for nobs only when the hand holds the Jack of the faceUpCard's suit.
+     */
+    @Test
+    void countNobs() {
+        ArrayList<Card> cards = new ArrayList<>();
+        cards.add(Card.of(11, 1));
+        cards.add(Card.of(4, 0));
+        long hand = ScoringEngine.handMask(cards);
+
+        assertEquals(1, ScoringEngine.countNobs(hand, ScoringEngine.ordinal(Card.of(2, 1))));
+        assertEquals(0, ScoringEngine.countNobs(hand, ScoringEngine.ordinal(Card.of(2, 0))));
+    }
+
+    /*
+    Expected: for random hands of 0 to 6 cards, the engine returns exactly what Hand.calculatePoints returns.
+     */
+    @Test
+    void matchesHandCalculatePoints() {
+        Random random = new Random(121);
+
+        for (int i = 0; i < 20000; i++) {
+            Deck deck = Deck.of();
+            deck.shuffle();
+            int handSize = random.nextInt(7);
+
+            ArrayList<Card> cards = new ArrayList<>();
+            for (int j = 0; j < handSize; j++) {
+                cards.add(deck.getAllCards().remove(0));
+            }
+            Card faceUpCard = deck.getAllCards().remove(0);
+
+            Hand hand = Hand.of(cards);
+            assertEquals(hand.calculatePoints(faceUpCard), ScoringEngine.calculatePoints(hand, faceUpCard),
+                    cards + " with " + faceUpCard);
+        }
+    }
+
+    /*
+    Expected: fifteens are counted the same as Hand.calculateFifteensPoints for larger hands too
+        (cribs and variants with more cards), without walking every subset.
+     */
+    @Test
+    void fifteensMatchHandForLargeHands() {
+        Random random = new Random(15);
+
+        for (int i = 0; i < 200; i++) {
+            Deck deck = Deck.of();
+            deck.shuffle();
+            int handSize = 5 + random.nextInt(10);
+
+            ArrayList<Card> cards = new ArrayList<>();
+            for (int j = 0; j < handSize; j++) {
+                cards.add(deck.getAllCards().remove(0));
+            }
+            Card faceUpCard = deck.getAllCards().remove(0);
+
+            Hand hand = Hand.of(cards);
+            assertEquals(hand.calculateFifteensPoints(faceUpCard), ScoringEngine.calculateFifteensPoints(hand, faceUpCard));
+        }
+    }
+
+    /*
+    Expected: the bitmask fifteens counter (8-bit lanes up to 8 cards, subsets above that) matches the table in
+        calculateFifteensPoints for every size from 1 to 14 cards, including the all-fives hands that push the lanes
+        hardest.
+     */
+    @Test
+    void bitmaskFifteensMatchTable() {
+        Random random = new Random(515);
+
+        for (int i = 0; i < 2000; i++) {
+            Deck deck = Deck.of();
+            deck.shuffle();
+            int handSize = random.nextInt(14);
+
+            ArrayList<Card> cards = new ArrayList<>();
+            for (int j = 0; j < handSize; j++) {
+                cards.add(deck.getAllCards().remove(0));
+            }
+            Card faceUpCard = deck.getAllCards().remove(0);
+
+            long allCards = ScoringEngine.handMask(cards) | (1L << ScoringEngine.ordinal(faceUpCard));
+            assertEquals(ScoringEngine.calculateFifteensPoints(Hand.of(cards), faceUpCard),
+                    ScoringEngine.countFifteensPoints(allCards), cards + " with " + faceUpCard);
+        }
+
+        ArrayList<Card> fivesAndTens = new ArrayList<>();
+        for (int suit = 0; suit < 4; suit++) {
+            fivesAndTens.add(Card.of(5, suit));
+            fivesAndTens.add(Card.of(10, suit));
+        }
+        Card jack = Card.of(11, 0);
+        assertEquals(ScoringEngine.calculateFifteensPoints(Hand.of(fivesAndTens), jack),
+                ScoringEngine.countFifteensPoints(ScoringEngine.handMask(fivesAndTens) | (1L << ScoringEngine.ordinal(jack))));
+    }
+
+    /*
+    Expected: scoring a hand bitmask allocates nothing, once warmed up.
+     */
+    @Test
+    void bitmaskScoringDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hand = ScoringEngine.handMask(threeFivesAndAJack());
+        int faceUp = ScoringEngine.ordinal(5, 3);
+
+        int checksum = 0;
+        for (int i = 0; i < 200000; i++) {
+            checksum += ScoringEngine.calculatePoints(hand, faceUp) + ScoringEngine.calculateCribPoints(hand, faceUp);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100000; i++) {
+            checksum += ScoringEngine.calculatePoints(hand, faceUp) + ScoringEngine.calculateCribPoints(hand, faceUp);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+
+    // 5, 5, 5 and a Jack
+    private static ArrayList<Card> threeFivesAndAJack() {
+        ArrayList<Card> cards = new ArrayList<>();
+        cards.add(Card.of(5, 0));
+        cards.add(Card.of(5, 1));
+        cards.add(Card.of(5, 2));
+        cards.add(Card.of(11, 3));
+        return cards;
+    }
+}
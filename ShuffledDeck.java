@@ -0,0 +1,203 @@
+package com.demo.example;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+This class represents a Deck of Cards that is shuffled once and then dealt from the top, analogous to a real deck.
+
+Data:
+    - int[] order: the ordinals (see ScoringEngine.ordinal) of all 52 cards, in dealing order
+    - int top: index of the next card to draw. Cards before top have been drawn.
+    - long contents: bitmask of the cards still in the deck
+    - SplittableRandom random: source of randomness for shuffling. Null means ThreadLocalRandom is used.
+
+Responsibilities:
+    - Create and represent a deck of 52 cards
+    - Shuffle the cards still in the deck
+    - Draw the top card in constant time
+    - Identify if the deck contains a Card in constant time
+    - Return a drawn Card to the deck
+    - Refill and reshuffle the same deck for a new round, without creating a new one
+    - Shuffle from a seeded random source, so a deal can be reproduced (see DealSequence)
+
+Deck shuffles its whole list and removes from the front of an ArrayList on every draw; this class does that work once
+per round instead.
+
+Relies upon:
+    - CardRegistry, for the shared Card object of each ordinal
+    - ScoringEngine, for the ordinal encoding
+ */
+
+public class ShuffledDeck {
+
+    private final int[] order;
+    private int top;
+    private long contents;
+    private final SplittableRandom random;
+
+    /*
+    Constructor. Creates all 52 cards in the same order as Deck (Ace of Clubs, Ace of Hearts ... King of Spades).
+     */
+    private ShuffledDeck(SplittableRandom random) {
+        this.order = new int[ScoringEngine.CARDS_IN_DECK];
+        this.random = random;
+        refill();
+    }
+
+    /*
+    Factory method. Returns a new, unshuffled ShuffledDeck that shuffles with ThreadLocalRandom.
+     */
+    public static ShuffledDeck of() {
+        return new ShuffledDeck(null);
+    }
+
+    /*
+    Factory method. Returns a new, unshuffled ShuffledDeck that shuffles with the given random source.
+    The same seed gives the same shuffles. The random source must only be used by one thread.
+     */
+    public static ShuffledDeck of(SplittableRandom random) {
+        return new ShuffledDeck(random);
+    }
+
+    /*
+    Puts all 52 cards back in the deck, in the original order.
+     */
+    void refill() {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        this.top = 0;
+        this.contents = ScoringEngine.FULL_DECK_MASK;
+    }
+
+    /*
+    Puts all 52 cards back in the deck and shuffles it. Used in place of creating a new Deck each round.
+     */
+    public void reset() {
+        refill();
+        shuffle();
+    }
+
+    /*
+    Shuffles the cards still in the deck (Fisher-Yates).
+     */
+    public void shuffle() {
+        if (random != null) {
+            shuffle(random);
+            return;
+        }
+
+        ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+        for (int i = order.length - 1; i > top; i--) {
+            swap(i, top + threadRandom.nextInt(i - top + 1));
+        }
+    }
+
+    /*
+    Shuffles the cards still in the deck (Fisher-Yates), using the given random source.
+     */
+    public void shuffle(SplittableRandom source) {
+        for (int i = order.length - 1; i > top; i--) {
+            swap(i, top + source.nextInt(i - top + 1));
+        }
+    }
+
+    /*
+    Swaps the cards at two positions in dealing order. Positions are counted from the top of a full deck.
+     */
+    void swap(int i, int j) {
+        int card = order[i];
+        order[i] = order[j];
+        order[j] = card;
+    }
+
+    /*
+    Removes and returns the top card of the deck.
+     */
+    public Card draw() {
+        return CardRegistry.fromOrdinal(drawOrdinal());
+    }
+
+    /*
+    Removes the top card of the deck and returns its ordinal.
+     */
+    public int drawOrdinal() {
+        if (top == order.length) {
+            throw new IllegalArgumentException("Can't draw from an empty deck");
+        }
+        int ordinal = order[top++];
+        contents &= ~(1L << ordinal);
+        return ordinal;
+    }
+
+    /*
+    Returns True if deck contains the specified card.
+     */
+    public boolean containsCard(Card card) {
+        return (contents & (1L << ScoringEngine.ordinal(card))) != 0;
+    }
+
+    /*
+    Adds a drawn card back to the deck, if the deck does not already contain the card. The card goes back on top.
+     */
+    public void addCardToDeck(Card card) {
+        if (containsCard(card)) {
+            return;
+        }
+
+        int ordinal = ScoringEngine.ordinal(card);
+        for (int i = 0; i < top; i++) {
+            if (order[i] == ordinal) {
+                top--;
+                order[i] = order[top];
+                order[top] = ordinal;
+                contents |= 1L << ordinal;
+                return;
+            }
+        }
+    }
+
+    /*
+    Returns the number of cards left in the deck.
+     */
+    public int size() {
+        return order.length - top;
+    }
+
+    /*
+    Returns the bitmask of the cards left in the deck.
+     */
+    public long getContents() {
+        return this.contents;
+    }
+
+    /*
+    Returns the cards left in the deck, in dealing order.
+     */
+    public ArrayList<Card> getAllCards() {
+        ArrayList<Card> cards = new ArrayList<>();
+        for (int i = top; i < order.length; i++) {
+            cards.add(CardRegistry.fromOrdinal(order[i]));
+        }
+        return cards;
+    }
+
+    /*
+    Returns true if the other ShuffledDeck contains the exact same set of cards (order doesn't matter).
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof ShuffledDeck) {
+            return this.contents == ((ShuffledDeck) other).contents;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(contents);
+    }
+
+}
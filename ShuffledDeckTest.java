@@ -0,0 +1,83 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShuffledDeckTest {
+
+    /*
+    Tests factory method.
+
+    Example:
+        - A new deck has 52 Cards, in the same order as Deck: Ace of Clubs first, King of Spades last.
+     */
+    @Test
+    void of() {
+        ShuffledDeck testDeck = ShuffledDeck.of();
+
+        assertEquals(52, testDeck.size());
+        assertEquals(Card.of(1, 0), testDeck.getAllCards().get(0));
+        assertEquals(Card.of(13, 3), testDeck.getAllCards().get(51));
+    }
+
+    /*
+    Expected:
+        - Drawing all 52 cards gives 52 different cards, and the deck no longer contains them.
+        - Drawing from an empty deck throws IllegalArgumentException.
+     */
+    @Test
+    void drawAll() {
+        ShuffledDeck testDeck = ShuffledDeck.of();
+        testDeck.shuffle();
+
+        HashSet<Integer> drawn = new HashSet<>();
+        for (int i = 0; i < 52; i++) {
+            Card card = testDeck.draw();
+            assertFalse(testDeck.containsCard(card));
+            drawn.add(ScoringEngine.ordinal(card));
+        }
+
+        assertEquals(52, drawn.size());
+        assertEquals(0, testDeck.size());
+        assertThrows(IllegalArgumentException.class, testDeck::draw);
+    }
+
+    /*
+    Expected:
+        - Returning a drawn card makes the deck equal to a full deck.
+        - Returning the same card twice leaves the deck unchanged.
+     */
+    @Test
+    void addAndReturnCard() {
+        ShuffledDeck testDeck = ShuffledDeck.of();
+        ShuffledDeck testDeck2 = ShuffledDeck.of();
+        testDeck.shuffle();
+
+        Card drawCard = testDeck.draw();
+        assertNotEquals(testDeck2, testDeck);
+
+        testDeck.addCardToDeck(drawCard);
+        assertEquals(testDeck2, testDeck);
+
+        testDeck.addCardToDeck(drawCard);
+        assertEquals(52, testDeck.size());
+    }
+
+    /*
+    Expected: reset puts every card back in the same deck.
+     */
+    @Test
+    void reset() {
+        ShuffledDeck testDeck = ShuffledDeck.of();
+        for (int i = 0; i < 13; i++) {
+            testDeck.draw();
+        }
+
+        testDeck.reset();
+        assertEquals(52, testDeck.size());
+        assertEquals(ShuffledDeck.of(), testDeck);
+    }
+}
@@ -0,0 +1,253 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/*
+This class plays many complete games between two strategies on a pool of worker threads and reports how they did.
+
+Each worker gets its own DealSequence (split from the seed before any work starts), its own strategies, and plays its
+share of the games one after another, so workers never share mutable state. Their results are added up at the end.
+
+In duplicate mode every deal sequence is played twice, the second time with the seats swapped (see DealSequence), so
+both strategies get the same cards and the luck of the deal mostly cancels out.
+
+Responsibilities:
+    - Play a number of games across a number of threads
+    - Report games per second, win rates, and average points per game in each phase (PEGGING, HAND, CRIB)
+
+Relies upon:
+    - HeadlessGame, to play each game
+    - Strategy, to make each player's choices
+    - DealSequence, for reproducible deals
+ */
+
+public class Simulator {
+
+    private final LongFunction<Strategy> strategyA;
+    private final LongFunction<Strategy> strategyB;
+    private final int threads;
+    private final boolean duplicate;
+
+    /*
+    Constructor.
+    strategyA, strategyB: create a new Strategy for a worker, from a seed.
+     */
+    private Simulator(LongFunction<Strategy> strategyA, LongFunction<Strategy> strategyB, int threads,
+                      boolean duplicate) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread");
+        }
+        this.strategyA = strategyA;
+        this.strategyB = strategyB;
+        this.threads = threads;
+        this.duplicate = duplicate;
+    }
+
+    /*
+    Factory method. Returns a Simulator playing strategyA (Player A) against strategyB (Player B) on threads workers.
+     */
+    public static Simulator of(LongFunction<Strategy> strategyA, LongFunction<Strategy> strategyB, int threads) {
+        return new Simulator(strategyA, strategyB, threads, false);
+    }
+
+    /*
+    Returns the same Simulator in duplicate mode: each deal sequence is also played with the seats swapped.
+     */
+    public Simulator duplicate() {
+        return new Simulator(strategyA, strategyB, threads, true);
+    }
+
+    /*
+    This class holds the results of a simulation (or of one worker's share of it).
+     */
+    public static final class Report {
+        private long games;
+        private long rounds;
+        private final long[] wins = new long[2];
+        private final long[][] points = new long[2][HeadlessGame.PHASES];
+        private long elapsedNanos;
+
+        private Report() {
+        }
+
+        // adds a finished game
+        private void add(HeadlessGame game) {
+            games++;
+            rounds += game.getRounds();
+            wins[game.getWinner()]++;
+            for (int player = 0; player < 2; player++) {
+                for (int phase = 0; phase < HeadlessGame.PHASES; phase++) {
+                    points[player][phase] += game.getPoints(player, phase);
+                }
+            }
+        }
+
+        // adds another report's games
+        private void add(Report other) {
+            games += other.games;
+            rounds += other.rounds;
+            for (int player = 0; player < 2; player++) {
+                wins[player] += other.wins[player];
+                for (int phase = 0; phase < HeadlessGame.PHASES; phase++) {
+                    points[player][phase] += other.points[player][phase];
+                }
+            }
+        }
+
+        public long getGames() {
+            return this.games;
+        }
+
+        public long getWins(int player) {
+            return this.wins[player];
+        }
+
+        // returns the fraction of games a player won
+        public double getWinRate(int player) {
+            return games == 0 ? 0.0 : (double) wins[player] / games;
+        }
+
+        // returns a player's average points per game in a phase (PEGGING, HAND or CRIB)
+        public double getAveragePoints(int player, int phase) {
+            return games == 0 ? 0.0 : (double) points[player][phase] / games;
+        }
+
+        // returns the average number of rounds per game
+        public double getAverageRounds() {
+            return games == 0 ? 0.0 : (double) rounds / games;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : games * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder output = new StringBuilder();
+            output.append(String.format("%d games in %.2f s (%.0f games/s), %.2f rounds per game%n",
+                    games, elapsedNanos / 1e9, getGamesPerSecond(), getAverageRounds()));
+            for (int player = 0; player < 2; player++) {
+                output.append(String.format("Player %s: won %.2f%%, per game pegging %.2f, hand %.2f, crib %.2f%n",
+                        player == HeadlessGame.PLAYER_A ? "A" : "B", 100 * getWinRate(player),
+                        getAveragePoints(player, HeadlessGame.PEGGING), getAveragePoints(player, HeadlessGame.HAND),
+                        getAveragePoints(player, HeadlessGame.CRIB)));
+            }
+            return output.toString();
+        }
+    }
+
+    /*
+    Plays games complete games, seeded from seed, and returns the Report. In duplicate mode games is rounded up to
+    an even number (each sequence is played twice).
+     */
+    public Report run(long games, long seed) throws InterruptedException {
+        DealSequence root = DealSequence.of(seed);
+        long sequences = duplicate ? (games + 1) / 2 : games;
+
+        // split everything a worker needs before starting, so results only depend on the seed and thread count
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<Report>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int worker = 0; worker < threads; worker++) {
+                long share = sequences / threads + (worker < sequences % threads ? 1 : 0);
+                DealSequence deals = root.split();
+                Strategy a = strategyA.apply(deals.getSeed() ^ 0x5DEECE66DL);
+                Strategy b = strategyB.apply(deals.getSeed() ^ 0xB5297A4DL);
+                futures.add(workers.submit(() -> playShare(deals, share, a, b)));
+            }
+
+            Report total = new Report();
+            for (Future<Report> future : futures) {
+                total.add(future.get());
+            }
+            total.elapsedNanos = System.nanoTime() - start;
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // plays one worker's share of the deal sequences
+    private Report playShare(DealSequence deals, long sequences, Strategy a, Strategy b) {
+        Report report = new Report();
+        for (long i = 0; i < sequences; i++) {
+            DealSequence sequence = deals.split();
+            DealSequence mirror = duplicate ? sequence.mirrored() : null;
+
+            report.add(play(sequence, a, b));
+            if (mirror != null) {
+                report.add(play(mirror, a, b));
+            }
+        }
+        return report;
+    }
+
+    // plays one game
+    private static HeadlessGame play(DealSequence deals, Strategy a, Strategy b) {
+        HeadlessGame game = HeadlessGame.of(deals);
+        game.playGame(a, b);
+        return game;
+    }
+
+    /*
+    Returns a factory for a strategy by name: "random", "greedy" or "mcts". discardTable is the path of a DiscardTable
+    file for "greedy" and "mcts", or null to evaluate discards as they come. The MCTS budget per card is read from
+    -Dcribbage.mcts-budget-ms (20 by default).
+     */
+    public static LongFunction<Strategy> strategy(String name, String discardTable) throws IOException {
+        switch (name) {
+            case "random":
+                return RandomStrategy::of;
+            case "greedy":
+                if (discardTable == null) {
+                    return seed -> GreedyStrategy.of();
+                }
+                DiscardTable table = DiscardTable.of(Paths.get(discardTable));
+                return seed -> GreedyStrategy.of(table);
+            case "mcts":
+                long budgetMillis = Long.getLong("cribbage.mcts-budget-ms", 20L);
+                DiscardTable mctsTable = discardTable == null ? null : DiscardTable.of(Paths.get(discardTable));
+                return seed -> MctsPlayer.of(budgetMillis, Long.MAX_VALUE, seed, mctsTable);
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    /*
+    Usage: Simulator <games> [threads] [strategy A] [strategy B] [seed] [discard table file]
+    Strategies are "random", "greedy" or "mcts". Add -Dcribbage.duplicate=true for duplicate mode.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: Simulator <games> [threads] [strategy A] [strategy B] [seed] [discard table file]");
+            return;
+        }
+
+        long games = Long.parseLong(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String nameA = args.length > 2 ? args[2] : "greedy";
+        String nameB = args.length > 3 ? args[3] : "random";
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        String discardTable = args.length > 5 ? args[5] : null;
+
+        Simulator simulator = Simulator.of(strategy(nameA, discardTable), strategy(nameB, discardTable), threads);
+        if (Boolean.getBoolean("cribbage.duplicate")) {
+            simulator = simulator.duplicate();
+        }
+
+        System.out.println(nameA + " (A) vs " + nameB + " (B), seed " + seed + ", " + threads + " threads");
+        System.out.print(simulator.run(games, seed));
+    }
+
+}
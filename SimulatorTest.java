@@ -0,0 +1,40 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+
+    /*
+    Expected: every game is played and won by someone, across several threads, and the same seed and thread
+        count give the same results.
+     */
+    @Test
+    void run() throws InterruptedException {
+        Simulator simulator = Simulator.of(RandomStrategy::of, RandomStrategy::of, 3);
+
+        Simulator.Report first = simulator.run(1000, 17L);
+        Simulator.Report second = simulator.run(1000, 17L);
+
+        assertEquals(1000, first.getGames());
+        assertEquals(1000, first.getWins(HeadlessGame.PLAYER_A) + first.getWins(HeadlessGame.PLAYER_B));
+        assertEquals(first.getWins(HeadlessGame.PLAYER_A), second.getWins(HeadlessGame.PLAYER_A));
+        assertEquals(first.getAveragePoints(HeadlessGame.PLAYER_B, HeadlessGame.PEGGING),
+                second.getAveragePoints(HeadlessGame.PLAYER_B, HeadlessGame.PEGGING));
+        assertTrue(first.getAverageRounds() > 1.0);
+    }
+
+    /*
+    Expected: in duplicate mode the same deterministic strategy in both seats wins exactly half the games.
+     */
+    @Test
+    void duplicateCancelsTheDeal() throws InterruptedException {
+        Simulator simulator = Simulator.of(seed -> GreedyStrategy.of(), seed -> GreedyStrategy.of(), 2).duplicate();
+
+        Simulator.Report report = simulator.run(40, 5L);
+
+        assertEquals(40, report.getGames());
+        assertEquals(0.5, report.getWinRate(HeadlessGame.PLAYER_A));
+    }
+}
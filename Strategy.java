@@ -0,0 +1,26 @@
+package com.demo.example;
+
+/*
+This interface represents a way of playing cribbage: which two cards to put in the crib, and which card to play.
+Used by HeadlessGame and Simulator to play games without a person clicking.
+
+Cards are passed as ordinals and bitmasks (see ScoringEngine). A strategy should only look at what its player could
+see at the table: its own hand and discards, the cards played, the running sum, the scores, and the faceUpCard once
+PLAY has started.
+
+A Strategy may keep state between calls, so each game (or worker thread) should have its own.
+ */
+
+public interface Strategy {
+
+    /*
+    Returns the two cards (as a bitmask) the player puts in the crib, from the six in game.getHand(player).
+     */
+    long chooseDiscard(HeadlessGame game, int player);
+
+    /*
+    Returns the ordinal of the card the player plays. Must be one of game.getLegalCards(player).
+     */
+    int choosePlay(HeadlessGame game, int player);
+
+}
@@ -0,0 +1,269 @@
+package com.demo.example;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+This class scores many four-card hands at once from struct-of-arrays buffers, using SIMD lanes through the incubating
+Vector API (jdk.incubator.vector) when it is switched on, and plain scalar code otherwise.
+
+Struct-of-arrays layout (see Batch):
+    - ranks[card][hand] and suits[card][hand] for card 0-3 (the hand) and 4 (the faceUpCard), so one vector load
+        reads the same card of many hands
+    - cribs[hand] is 1 when the hand is a crib, 0 otherwise
+
+VectorKernel imports the incubator module, so it sits in its own source directory (vector/) that the default build
+doesn't compile, and the default build needs no extra flags. VectorScoring finds the kernel by reflection, and uses
+the scalar path when it can't. Switching it on:
+    - compile the kernel into the main classes:
+        javac --release 21 --add-modules jdk.incubator.vector -cp <classes> -d <classes> vector/VectorKernel.java
+    - run the JVM with --add-modules jdk.incubator.vector (it prints a warning that the module is incubating)
+    - set the system property cribbage.vector-scoring to true
+When any of these is missing, score uses the scalar path.
+
+Scores are the same as ScoringEngine.calculatePoints, or ScoringEngine.calculateCribPoints for cribs, including
+Hand's rules for pairs and runs.
+
+Responsibilities:
+    - Hold a batch of hands in struct-of-arrays form
+    - Score a batch with the vector kernel or the scalar fallback
+    - Benchmark both against Hand.calculatePoints (run main)
+
+Relies upon:
+    - VectorKernel (optional, see above) for the SIMD path
+    - ScoringEngine for the scalar path
+ */
+
+public final class VectorScoring {
+
+    // system property that switches the vector path on
+    public static final String ENABLED_PROPERTY = "cribbage.vector-scoring";
+
+    public static final int CARDS = ScoreTable.HAND_SIZE + 1;
+    public static final int FACE_UP = ScoreTable.HAND_SIZE;
+
+    // class name of the SIMD path, compiled separately
+    private static final String KERNEL_CLASS = "com.demo.example.VectorKernel";
+
+    // null when the module or the kernel class is missing
+    private static final Kernel KERNEL = loadKernel();
+    private static final boolean ENABLED = KERNEL != null && Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private VectorScoring() {
+    }
+
+    /*
+    The SIMD path, implemented by VectorKernel.
+     */
+    interface Kernel {
+
+        // writes the score of every hand in the batch to scores[0 .. batch.size() - 1]
+        void score(Batch batch, int[] scores);
+    }
+
+    // returns the vector kernel, or null if the Vector API module isn't in the JVM or the kernel wasn't compiled
+    private static Kernel loadKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (Kernel) Class.forName(KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /*
+    Returns true if the Vector API module is in the JVM and the vector kernel was compiled.
+     */
+    public static boolean isVectorAvailable() {
+        return KERNEL != null;
+    }
+
+    /*
+    Returns the vector kernel, or null when isVectorAvailable is false.
+     */
+    static Kernel kernel() {
+        return KERNEL;
+    }
+
+    /*
+    Returns true if score uses the vector kernel.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /*
+    A batch of hands in struct-of-arrays form. Reuse one batch for many calls to score.
+     */
+    public static final class Batch {
+
+        final int[][] ranks;
+        final int[][] suits;
+        final int[] cribs;
+        private int size;
+
+        private Batch(int capacity) {
+            this.ranks = new int[CARDS][capacity];
+            this.suits = new int[CARDS][capacity];
+            this.cribs = new int[capacity];
+        }
+
+        /*
+        Factory method. Creates an empty batch that holds up to capacity hands.
+         */
+        public static Batch of(int capacity) {
+            return new Batch(capacity);
+        }
+
+        public int getCapacity() {
+            return cribs.length;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        /*
+        Sets the hand at index from a four-card bitmask and the faceUpCard's ordinal. size grows to cover index.
+         */
+        public void set(int index, long handMask, int faceUpOrdinal, boolean isCrib) {
+            if (Long.bitCount(handMask) != ScoreTable.HAND_SIZE || (handMask & (1L << faceUpOrdinal)) != 0) {
+                throw new IllegalArgumentException("Need four cards and a faceUpCard that isn't one of them");
+            }
+
+            int card = 0;
+            for (long remaining = handMask; remaining != 0; remaining &= remaining - 1) {
+                setCard(card++, index, Long.numberOfTrailingZeros(remaining));
+            }
+            setCard(FACE_UP, index, faceUpOrdinal);
+            cribs[index] = isCrib ? 1 : 0;
+            size = Math.max(size, index + 1);
+        }
+
+        /*
+        Adds a hand at the end of the batch.
+         */
+        public void add(long handMask, int faceUpOrdinal, boolean isCrib) {
+            set(size, handMask, faceUpOrdinal, isCrib);
+        }
+
+        private void setCard(int card, int index, int ordinal) {
+            ranks[card][index] = ScoringEngine.valueOf(ordinal);
+            suits[card][index] = ScoringEngine.suitOf(ordinal);
+        }
+
+        long handMask(int index) {
+            long mask = 0L;
+            for (int card = 0; card < ScoreTable.HAND_SIZE; card++) {
+                mask |= 1L << ScoringEngine.ordinal(ranks[card][index], suits[card][index]);
+            }
+            return mask;
+        }
+
+        int faceUpOrdinal(int index) {
+            return ScoringEngine.ordinal(ranks[FACE_UP][index], suits[FACE_UP][index]);
+        }
+    }
+
+    /*
+    Writes the score of every hand in the batch to scores[0 .. batch.size() - 1].
+     */
+    public static void score(Batch batch, int[] scores) {
+        if (ENABLED) {
+            KERNEL.score(batch, scores);
+        } else {
+            scoreScalar(batch, scores, 0);
+        }
+    }
+
+    /*
+    The scalar fallback: one hand at a time through ScoringEngine, from hand index from to the end of the batch.
+     */
+    static void scoreScalar(Batch batch, int[] scores, int from) {
+        for (int i = from; i < batch.size(); i++) {
+            long handMask = batch.handMask(i);
+            int faceUpOrdinal = batch.faceUpOrdinal(i);
+            scores[i] = batch.cribs[i] != 0 ? ScoringEngine.calculateCribPoints(handMask, faceUpOrdinal)
+                    : ScoringEngine.calculatePoints(handMask, faceUpOrdinal);
+        }
+    }
+
+    /*
+    Benchmark. Usage: VectorScoring [hands] [rounds]
+    Scores the same random hands with Hand.calculatePoints, ScoringEngine, the scalar batch path and (when the kernel
+    is available) the vector kernel, and prints nanoseconds per hand for each.
+     */
+    public static void main(String[] args) {
+        int hands = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Random random = new Random(19);
+        Batch batch = Batch.of(hands);
+        long[] handMasks = new long[hands];
+        int[] faceUpOrdinals = new int[hands];
+        Hand[] handObjects = new Hand[hands];
+        Card[] faceUpCards = new Card[hands];
+
+        for (int i = 0; i < hands; i++) {
+            int faceUp = random.nextInt(ScoringEngine.CARDS_IN_DECK);
+            long mask = 1L << faceUp;
+            while (Long.bitCount(mask) < CARDS) {
+                mask |= 1L << random.nextInt(ScoringEngine.CARDS_IN_DECK);
+            }
+            handMasks[i] = mask & ~(1L << faceUp);
+            faceUpOrdinals[i] = faceUp;
+            batch.add(handMasks[i], faceUp, false);
+
+            ArrayList<Card> cards = new ArrayList<>();
+            for (long remaining = handMasks[i]; remaining != 0; remaining &= remaining - 1) {
+                cards.add(CardRegistry.fromOrdinal(Long.numberOfTrailingZeros(remaining)));
+            }
+            handObjects[i] = Hand.of(cards);
+            faceUpCards[i] = CardRegistry.fromOrdinal(faceUp);
+        }
+
+        int[] scores = new int[hands];
+        for (int round = 0; round < rounds; round++) {
+            long checksum = 0;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < hands; i++) {
+                checksum += handObjects[i].calculatePoints(faceUpCards[i]);
+            }
+            long handNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < hands; i++) {
+                checksum -= ScoringEngine.calculatePoints(handMasks[i], faceUpOrdinals[i]);
+            }
+            long engineNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            scoreScalar(batch, scores, 0);
+            long scalarNanos = System.nanoTime() - start;
+
+            long vectorNanos = 0;
+            if (KERNEL != null) {
+                start = System.nanoTime();
+                KERNEL.score(batch, scores);
+                vectorNanos = System.nanoTime() - start;
+                for (int i = 0; i < hands; i++) {
+                    checksum += scores[i] - ScoringEngine.calculatePoints(handMasks[i], faceUpOrdinals[i]);
+                }
+            }
+
+            System.out.printf("round %d: Hand %.1f ns, ScoringEngine %.1f ns, scalar batch %.1f ns, vector %s "
+                            + "(per hand, checksum %d)%n", round, (double) handNanos / hands,
+                    (double) engineNanos / hands, (double) scalarNanos / hands,
+                    KERNEL != null ? String.format("%.1f ns", (double) vectorNanos / hands) : "unavailable",
+                    checksum);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorScoringTest {
+
+    /*
+    Expected: for random hands and cribs, the scalar path and (when jdk.incubator.vector is in the JVM and the kernel
+        was compiled) the vector kernel both return ScoringEngine's scores, including the hands left over after the last full vector.
+     */
+    @Test
+    void matchesScoringEngine() {
+        Random random = new Random(19);
+        int hands = 100003;
+        VectorScoring.Batch batch = VectorScoring.Batch.of(hands);
+        int[] expected = new int[hands];
+
+        for (int i = 0; i < hands; i++) {
+            int faceUp = random.nextInt(ScoringEngine.CARDS_IN_DECK);
+            long handMask = 0L;
+            while (Long.bitCount(handMask) < ScoreTable.HAND_SIZE) {
+                handMask |= (1L << random.nextInt(ScoringEngine.CARDS_IN_DECK)) & ~(1L << faceUp);
+            }
+            boolean isCrib = random.nextBoolean();
+            batch.add(handMask, faceUp, isCrib);
+            expected[i] = isCrib ? ScoringEngine.calculateCribPoints(handMask, faceUp)
+                    : ScoringEngine.calculatePoints(handMask, faceUp);
+        }
+
+        int[] scores = new int[hands];
+        VectorScoring.scoreScalar(batch, scores, 0);
+        assertArrayEquals(expected, scores);
+
+        if (VectorScoring.isVectorAvailable()) {
+            scores = new int[hands];
+            VectorScoring.kernel().score(batch, scores);
+            assertArrayEquals(expected, scores);
+        }
+    }
+
+    /*
+    Expected: hands that exercise every rule score the same in the batch as in ScoringEngine.
+        - 5, 5, 5, Jack with a 5: 28 points
+        - 3, 3, 4, 4 with a 5: Hand's pairs and runs rules
+        - 2, 6, 9, King of Hearts with an 8 of Clubs: a fifteen (6 + 9) and a flush, which a crib doesn't score
+     */
+    @Test
+    void knownHands() {
+        VectorScoring.Batch batch = VectorScoring.Batch.of(4);
+        long fives = mask(5, 0, 5, 1, 5, 2, 11, 3);
+        long doubleRun = mask(3, 0, 3, 1, 4, 0, 4, 2);
+        long hearts = mask(2, 1, 6, 1, 9, 1, 13, 1);
+        batch.add(fives, ScoringEngine.ordinal(5, 3), false);
+        batch.add(doubleRun, ScoringEngine.ordinal(5, 1), false);
+        batch.add(hearts, ScoringEngine.ordinal(8, 0), false);
+        batch.add(hearts, ScoringEngine.ordinal(8, 0), true);
+
+        int[] scores = new int[4];
+        VectorScoring.score(batch, scores);
+
+        assertEquals(28, scores[0]);
+        assertEquals(ScoringEngine.calculatePoints(doubleRun, ScoringEngine.ordinal(5, 1)), scores[1]);
+        assertEquals(6, scores[2]);
+        assertEquals(2, scores[3]);
+    }
+
+    private static long mask(int... valuesAndSuits) {
+        long mask = 0L;
+        for (int i = 0; i < valuesAndSuits.length; i += 2) {
+            mask |= 1L << ScoringEngine.ordinal(valuesAndSuits[i], valuesAndSuits[i + 1]);
+        }
+        return mask;
+    }
+}
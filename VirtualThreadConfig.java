@@ -0,0 +1,36 @@
+package com.demo.example;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/*
+This class switches embedded Tomcat from its pool of platform threads to one Java 21 virtual thread per request.
+
+Opt in with -Dcribbage.virtual-threads=true (or cribbage.virtual-threads=true in application.properties). Without it,
+this configuration isn't loaded and Tomcat keeps its default pool.
+
+GameController's actions run on GameRegistry's shard threads, so a request thread only waits on the shard, which
+doesn't pin a virtual thread to its carrier. No class here has synchronized blocks or methods (ScoreCache locks with
+ReentrantLocks), so there are no pinning sections left. To check, also run the server with
+-Djdk.tracePinnedThreads=full: the JVM prints a stack trace whenever a virtual thread blocks while pinned. Compare the
+two modes with LoadBenchmark.
+
+Relies upon: None.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = VirtualThreadConfig.PROPERTY, havingValue = "true")
+public class VirtualThreadConfig {
+
+    public static final String PROPERTY = "cribbage.virtual-threads";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutor() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+}
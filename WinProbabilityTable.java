@@ -0,0 +1,319 @@
+package com.demo.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+This class holds the probability of winning from every board position at the start of a round, so strategies can make
+score-aware decisions near the end of a game with a single array read.
+
+How the table is built:
+    1. Round distributions: many rounds are played between two GreedyStrategy players (see HeadlessGame), and for each
+        one the table counts the pegging points of both players (together), the pone's hand points, and the dealer's
+        hand plus crib points. Rounds in which someone reached 121 are left out.
+    2. Dynamic program: V[p][q] is the probability that the pone wins when the round starts with the pone on p points
+        and the dealer on q points. A round adds pegging points to both players, then the pone's hand, then the
+        dealer's hand and crib, stopping as soon as someone reaches 121; otherwise the next round starts with the
+        roles swapped, so the pone's chance is 1 - V[new dealer score][new pone score].
+        Every round earns at least one point (the last card), so positions are solved from the highest total score
+        down, each needing only positions that are already solved. If both players would reach 121 while pegging,
+        each wins half of the time.
+
+For a position (score A, score B, dealer): if B deals, A is the pone and wins with V[a][b]; if A deals, A wins with
+1 - V[b][a].
+
+File layout:
+    - 8 bytes: MAGIC
+    - 8 bytes: number of scores per player (121)
+    - 121 * 121 floats: V[p][q], p major
+
+Lookups during a round use the scores as they are, as if a new round were starting.
+
+Responsibilities:
+    - Build the round distributions and solve the table (build step: run main with the output path)
+    - Read and write the table file
+    - Return A's win probability for a position, a Board, or a Game
+
+Relies upon:
+    - HeadlessGame and GreedyStrategy, to play the rounds
+    - Board and Game, for lookups
+ */
+
+public class WinProbabilityTable {
+
+    public static final long MAGIC = 0x4352494257494E50L; // "CRIBWINP"
+    public static final int SCORES = HeadlessGame.WINNING_SCORE;
+
+    // system property holding the path of the table returned by shared()
+    public static final String PATH_PROPERTY = "cribbage.win-table";
+
+    private static final int HEADER_BYTES = 16;
+
+    // largest pegging, pone show and dealer show (hand and crib) totals counted in one round
+    static final int MAX_PEGGING = 63;
+    static final int MAX_PONE_SHOW = 31;
+    static final int MAX_DEALER_SHOW = 63;
+
+    private final float[] poneWins;
+
+    /*
+    Constructor. poneWins holds V[p][q] at p * SCORES + q.
+     */
+    private WinProbabilityTable(float[] poneWins) {
+        this.poneWins = poneWins;
+    }
+
+    /*
+    Factory method. Reads the table file at path.
+    Throws IOException if the file can't be read, IllegalStateException if it isn't a win probability table.
+     */
+    public static WinProbabilityTable of(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.capacity() != HEADER_BYTES + 4 * SCORES * SCORES
+                || buffer.getLong() != MAGIC || buffer.getLong() != SCORES) {
+            throw new IllegalStateException("Not a win probability table: " + path);
+        }
+
+        float[] poneWins = new float[SCORES * SCORES];
+        buffer.asFloatBuffer().get(poneWins);
+        return new WinProbabilityTable(poneWins);
+    }
+
+    /*
+    Returns the table named by the cribbage.win-table system property, read once and shared.
+    Returns null if the property isn't set or the file can't be used.
+     */
+    public static WinProbabilityTable shared() {
+        return SharedTable.TABLE;
+    }
+
+    // loaded the first time shared() is called; the JVM makes sure that only happens once
+    private static final class SharedTable {
+        private static final WinProbabilityTable TABLE = load();
+
+        private static WinProbabilityTable load() {
+            String path = System.getProperty(PATH_PROPERTY);
+            if (path == null) {
+                return null;
+            }
+            try {
+                return of(Paths.get(path));
+            } catch (IOException | IllegalStateException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+    }
+
+    /*
+    Returns the probability that Player A wins from a position at the start of a round.
+    Scores of 121 or more have already won.
+     */
+    public double getWinProbability(int scoreA, int scoreB, boolean dealerA) {
+        if (scoreA >= SCORES) {
+            return 1.0;
+        }
+        if (scoreB >= SCORES) {
+            return 0.0;
+        }
+        return dealerA ? 1.0 - poneWins[scoreB * SCORES + scoreA] : poneWins[scoreA * SCORES + scoreB];
+    }
+
+    /*
+    Returns the probability that Player A wins, from a Board's points and who deals.
+     */
+    public double getWinProbability(Board board, boolean dealerA) {
+        return getWinProbability(board.getPlayerAPoints(), board.getPlayerBPoints(), dealerA);
+    }
+
+    /*
+    Returns the probability that Player A wins a Game from its current points and dealer.
+     */
+    public double getWinProbability(Game game) {
+        return getWinProbability(game.getBoard(), game.isCurrentDealerA());
+    }
+
+    /*
+    This class counts how many points are earned in each part of a round.
+     */
+    static final class RoundDistributions {
+        private final long[][] pegging = new long[MAX_PEGGING + 1][MAX_PEGGING + 1];
+        private final long[] poneShow = new long[MAX_PONE_SHOW + 1];
+        private final long[] dealerShow = new long[MAX_DEALER_SHOW + 1];
+        private long rounds;
+
+        // adds one round: pegging points of the pone and dealer, the pone's hand, the dealer's hand and crib
+        void add(int ponePegging, int dealerPegging, int ponePoints, int dealerPoints) {
+            pegging[Math.min(ponePegging, MAX_PEGGING)][Math.min(dealerPegging, MAX_PEGGING)]++;
+            poneShow[Math.min(ponePoints, MAX_PONE_SHOW)]++;
+            dealerShow[Math.min(dealerPoints, MAX_DEALER_SHOW)]++;
+            rounds++;
+        }
+
+        long getRounds() {
+            return this.rounds;
+        }
+    }
+
+    /*
+    Plays rounds between two GreedyStrategy players and counts their points. Whole games are played, starting a new
+    one whenever someone wins; rounds in which someone reached 121 are not counted.
+     */
+    static RoundDistributions simulate(long rounds, long seed, DiscardTable discardTable) {
+        GreedyStrategy strategy = discardTable == null ? GreedyStrategy.of() : GreedyStrategy.of(discardTable);
+        DealSequence deals = DealSequence.of(seed);
+        RoundDistributions distributions = new RoundDistributions();
+
+        HeadlessGame game = HeadlessGame.of(deals.split());
+        while (distributions.getRounds() < rounds) {
+            if (game.isOver()) {
+                game = HeadlessGame.of(deals.split());
+            }
+
+            game.dealRound();
+            int pone = 1 - game.getDealer();
+            int dealer = game.getDealer();
+            int ponePegging = game.getPoints(pone, HeadlessGame.PEGGING);
+            int dealerPegging = game.getPoints(dealer, HeadlessGame.PEGGING);
+            int poneHand = game.getPoints(pone, HeadlessGame.HAND);
+            int dealerShow = game.getPoints(dealer, HeadlessGame.HAND) + game.getPoints(dealer, HeadlessGame.CRIB);
+
+            game.discard(HeadlessGame.PLAYER_A, strategy.chooseDiscard(game, HeadlessGame.PLAYER_A));
+            game.discard(HeadlessGame.PLAYER_B, strategy.chooseDiscard(game, HeadlessGame.PLAYER_B));
+            while (game.getGameStatus() == Game.GameStatus.PLAY) {
+                game.play(strategy.choosePlay(game, game.getCurrentPlayer()));
+            }
+            if (game.isOver()) {
+                continue;
+            }
+            game.showScore();
+            if (game.isOver()) {
+                continue;
+            }
+
+            distributions.add(game.getPoints(pone, HeadlessGame.PEGGING) - ponePegging,
+                    game.getPoints(dealer, HeadlessGame.PEGGING) - dealerPegging,
+                    game.getPoints(pone, HeadlessGame.HAND) - poneHand,
+                    game.getPoints(dealer, HeadlessGame.HAND) + game.getPoints(dealer, HeadlessGame.CRIB) - dealerShow);
+        }
+
+        return distributions;
+    }
+
+    /*
+    Solves V[p][q] (the pone's chance of winning) for every position, from round distributions.
+
+    Worked backwards by total score t = p + q, from 240 down to 0. For each total:
+        - V[p][q] from the pegging distribution and U (after pegging)
+        - G[p][q] = chance the pone (on p, having shown) wins once the dealer (on q) shows
+        - U[p][q] = chance the pone (on p) wins after pegging, once both have shown
+    G and U at total t only need V at totals of t or more, and V at total t only needs U at higher totals, because
+    pegging always earns at least one point.
+     */
+    static WinProbabilityTable solve(RoundDistributions distributions) {
+        if (distributions.getRounds() == 0) {
+            throw new IllegalArgumentException("Need at least one round");
+        }
+        double rounds = distributions.getRounds();
+        float[] poneWins = new float[SCORES * SCORES];
+        double[] afterShow = new double[SCORES * SCORES];
+        double[] afterPegging = new double[SCORES * SCORES];
+
+        for (int total = 2 * (SCORES - 1); total >= 0; total--) {
+            int low = Math.max(0, total - (SCORES - 1));
+            int high = Math.min(total, SCORES - 1);
+
+            for (int p = low; p <= high; p++) {
+                int q = total - p;
+                double wins = 0.0;
+                for (int x = 0; x <= MAX_PEGGING; x++) {
+                    for (int y = 0; y <= MAX_PEGGING; y++) {
+                        long count = distributions.pegging[x][y];
+                        if (count == 0) {
+                            continue;
+                        }
+                        boolean poneOut = p + x >= SCORES;
+                        boolean dealerOut = q + y >= SCORES;
+                        if (poneOut && dealerOut) {
+                            wins += 0.5 * count;
+                        } else if (poneOut) {
+                            wins += count;
+                        } else if (!dealerOut) {
+                            if (x + y == 0) {
+                                throw new IllegalArgumentException("Pegging must earn at least one point per round");
+                            }
+                            wins += count * afterPegging[(p + x) * SCORES + q + y];
+                        }
+                    }
+                }
+                poneWins[p * SCORES + q] = (float) (wins / rounds);
+            }
+
+            for (int p = low; p <= high; p++) {
+                int q = total - p;
+                double wins = 0.0;
+                for (int k = 0; k <= MAX_DEALER_SHOW; k++) {
+                    long count = distributions.dealerShow[k];
+                    if (count != 0 && q + k < SCORES) {
+                        // next round: the dealer (q + k) is the pone, the pone (p) deals
+                        wins += count * (1.0 - poneWins[(q + k) * SCORES + p]);
+                    }
+                }
+                afterShow[p * SCORES + q] = wins / rounds;
+            }
+
+            for (int p = low; p <= high; p++) {
+                int q = total - p;
+                double wins = 0.0;
+                for (int h = 0; h <= MAX_PONE_SHOW; h++) {
+                    long count = distributions.poneShow[h];
+                    if (count != 0) {
+                        wins += count * (p + h >= SCORES ? 1.0 : afterShow[(p + h) * SCORES + q]);
+                    }
+                }
+                afterPegging[p * SCORES + q] = wins / rounds;
+            }
+        }
+
+        return new WinProbabilityTable(poneWins);
+    }
+
+    /*
+    Writes the table to a file.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * poneWins.length);
+        buffer.putLong(MAGIC).putLong(SCORES);
+        buffer.asFloatBuffer().put(poneWins);
+        Files.write(path, buffer.array());
+    }
+
+    /*
+    Build step. Usage: WinProbabilityTable <output file> [rounds] [seed] [discard table file]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: WinProbabilityTable <output file> [rounds] [seed] [discard table file]");
+            return;
+        }
+
+        Path path = Paths.get(args[0]);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        long rounds = args.length > 1 ? Long.parseLong(args[1]) : 100_000L;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 121L;
+        DiscardTable discardTable = args.length > 3 ? DiscardTable.of(Paths.get(args[3])) : null;
+
+        long start = System.nanoTime();
+        WinProbabilityTable table = solve(simulate(rounds, seed, discardTable));
+        table.write(path);
+        System.out.println("Wrote " + SCORES * SCORES + " positions from " + rounds + " rounds to " + path + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        System.out.printf("Non-dealer's chance at 0-0: %.3f%n", table.getWinProbability(0, 0, false));
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.demo.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WinProbabilityTableTest {
+
+    /*
+    Expected: if every round gives exactly 1 pegging point to the dealer and nothing else, the players take turns
+        scoring 1 point, starting with the first dealer.
+        - at 0-0 the first dealer reaches 121 first, so the pone never wins
+        - at 120-0 the pone deals the second round and reaches 121 first
+        - at 120-120 the dealer wins straight away
+     */
+    @Test
+    void solveAlternatingPoints() {
+        WinProbabilityTable.RoundDistributions distributions = new WinProbabilityTable.RoundDistributions();
+        distributions.add(0, 1, 0, 0);
+        WinProbabilityTable table = WinProbabilityTable.solve(distributions);
+
+        assertEquals(0.0, table.getWinProbability(0, 0, false), 1e-6);
+        assertEquals(1.0, table.getWinProbability(0, 0, true), 1e-6);
+        assertEquals(1.0, table.getWinProbability(120, 0, false), 1e-6);
+        assertEquals(0.0, table.getWinProbability(120, 120, false), 1e-6);
+        assertEquals(1.0, table.getWinProbability(121, 50, false));
+        assertEquals(0.0, table.getWinProbability(50, 130, true));
+    }
+
+    /*
+    Expected: from simulated rounds, every probability is between 0 and 1, more points never lower the chance of
+        winning, and the first dealer has an edge at 0-0.
+     */
+    @Test
+    void solveSimulatedRounds() {
+        WinProbabilityTable table = WinProbabilityTable.solve(WinProbabilityTable.simulate(2000, 7L, null));
+
+        for (int a = 0; a < WinProbabilityTable.SCORES; a += 5) {
+            for (int b = 0; b < WinProbabilityTable.SCORES; b += 5) {
+                double probability = table.getWinProbability(a, b, false);
+                assertTrue(probability >= 0.0 && probability <= 1.0);
+                if (a + 5 < WinProbabilityTable.SCORES) {
+                    assertTrue(table.getWinProbability(a + 5, b, false) >= probability - 1e-6);
+                }
+            }
+        }
+        assertTrue(table.getWinProbability(0, 0, true) > 0.5);
+        assertTrue(table.getWinProbability(0, 0, true) < 0.6);
+    }
+
+    /*
+    Expected: a table written to a file reads back with the same probabilities, and the lookup from a Board
+        uses its points.
+     */
+    @Test
+    void writeAndRead(@TempDir Path directory) throws IOException {
+        WinProbabilityTable.RoundDistributions distributions = new WinProbabilityTable.RoundDistributions();
+        distributions.add(2, 3, 8, 12);
+        distributions.add(4, 1, 6, 20);
+        WinProbabilityTable table = WinProbabilityTable.solve(distributions);
+
+        Path path = directory.resolve("win.table");
+        table.write(path);
+        WinProbabilityTable read = WinProbabilityTable.of(path);
+
+        Board board = Board.of();
+        board.addToPlayerAPoints(90);
+        board.addToPlayerBPoints(100);
+        assertEquals(table.getWinProbability(90, 100, true), read.getWinProbability(board, true));
+        assertEquals(table.getWinProbability(10, 3, false), read.getWinProbability(10, 3, false));
+    }
+}
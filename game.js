@@ -72,8 +72,16 @@ const primaryColor = "white"
 
 var savedPlayerName = localStorage.getItem('playerName');
 
+// each tab plays its own table on the server, so keep the game ID for as long as the tab is open
+var gameId = sessionStorage.getItem('gameId');
+if (!gameId) {
+  gameId = crypto.randomUUID();
+  sessionStorage.setItem('gameId', gameId);
+}
+const gameQuery = '?gameId=' + encodeURIComponent(gameId);
+
 // Make a GET request to the backend's current-game endpoint
-fetch('http://localhost:8080/api/current-game')
+fetch('http://localhost:8080/api/current-game' + gameQuery)
     .then(response => response.json())
     .then(data => {
       // Log the received data here
@@ -92,7 +100,7 @@ fetch('http://localhost:8080/api/current-game')
 
 async function startNewGame() {
   try {
-    const response = await fetch('http://localhost:8080/api/start-new-game', {
+    const response = await fetch('http://localhost:8080/api/start-new-game' + gameQuery, {
       method: 'POST',
       headers: {
         //'Content-Type': 'application/json',
@@ -120,7 +128,7 @@ async function startNewGame() {
 async function startNewRound() {
   if(gameState === "SHOW"){
     try {
-      const response = await fetch('http://localhost:8080/api/start-new-round', {
+      const response = await fetch('http://localhost:8080/api/start-new-round' + gameQuery, {
         method: 'POST',
         headers: {
           //'Content-Type': 'application/json',
@@ -149,7 +157,7 @@ async function startNewRound() {
 async function showScore() {
   if(gameState === "SHOW"){
     try {
-      const response = await fetch('http://localhost:8080/api/show-score', {
+      const response = await fetch('http://localhost:8080/api/show-score' + gameQuery, {
         method: 'POST',
         headers: {
           //'Content-Type': 'application/json',
@@ -260,7 +268,7 @@ function sendToBackend(array){
   console.log('BE Game State: ', gameState);
 
   // Send the card information to the backend
-  fetch('http://localhost:8080/api/play-card', {
+  fetch('http://localhost:8080/api/play-card' + gameQuery, {
     method: 'POST',
     headers: {
       'Content-Type': 'application/json'
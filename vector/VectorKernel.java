@@ -0,0 +1,181 @@
+package com.demo.example;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+This class is the SIMD path of VectorScoring. Each vector lane holds one hand, so one pass scores as many hands as the
+CPU's preferred vector has int lanes (8 with AVX2, 16 with AVX-512). Hands left over at the end of the batch go
+through the scalar path.
+
+Per lane, with v0-v4 the scoring values of the four hand cards and the faceUpCard and T their total:
+    - fifteens: a subset sums to 15 exactly when its complement sums to T - 15. So only the 10 pair sums and the 5
+        single values are needed: pairs that make 15, pairs whose complement (three cards) makes 15, single cards
+        whose complement (four cards) makes 15, and T itself.
+    - pairs: like Hand, only the lowest value with more than one card counts, c cards of it scoring c * (c - 1)
+    - runs: a bitmask of the values present. Values starting three in a row mark the run, which (with five cards)
+        there can only be one of. It scores (distinct values) * (cards in it - distinct values + 1), like Hand.
+    - flush: the four hand cards share a suit. Cribs also need the faceUpCard to match.
+
+It lives outside the main sources because it imports the incubating jdk.incubator.vector module: the default build
+doesn't compile it, and VectorScoring falls back to scalar code when it isn't there. To build it, compile it on its
+own into the main classes (see VectorScoring).
+
+Relies upon:
+    - VectorScoring.Batch for the struct-of-arrays buffers
+ */
+
+final class VectorKernel implements VectorScoring.Kernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    // greater than any value, so it loses every min
+    private static final int NO_VALUE = 14;
+
+    /*
+    Constructor. VectorScoring creates the one instance by reflection.
+     */
+    VectorKernel() {
+    }
+
+    /*
+    Writes the score of every hand in the batch to scores[0 .. batch.size() - 1].
+     */
+    @Override
+    public void score(VectorScoring.Batch batch, int[] scores) {
+        int[][] ranks = batch.ranks;
+        int[][] suits = batch.suits;
+        int bound = SPECIES.loopBound(batch.size());
+
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector r0 = IntVector.fromArray(SPECIES, ranks[0], i);
+            IntVector r1 = IntVector.fromArray(SPECIES, ranks[1], i);
+            IntVector r2 = IntVector.fromArray(SPECIES, ranks[2], i);
+            IntVector r3 = IntVector.fromArray(SPECIES, ranks[3], i);
+            IntVector r4 = IntVector.fromArray(SPECIES, ranks[4], i);
+
+            IntVector points = fifteens(r0.min(10), r1.min(10), r2.min(10), r3.min(10), r4.min(10))
+                    .add(pairs(r0, r1, r2, r3, r4))
+                    .add(runs(r0, r1, r2, r3, r4))
+                    .add(flush(IntVector.fromArray(SPECIES, suits[0], i), IntVector.fromArray(SPECIES, suits[1], i),
+                            IntVector.fromArray(SPECIES, suits[2], i), IntVector.fromArray(SPECIES, suits[3], i),
+                            IntVector.fromArray(SPECIES, suits[4], i),
+                            IntVector.fromArray(SPECIES, batch.cribs, i).compare(VectorOperators.NE, 0)));
+            points.intoArray(scores, i);
+        }
+
+        VectorScoring.scoreScalar(batch, scores, bound);
+    }
+
+    private static IntVector fifteens(IntVector v0, IntVector v1, IntVector v2, IntVector v3, IntVector v4) {
+        IntVector total = v0.add(v1).add(v2).add(v3).add(v4);
+        IntVector complement = total.sub(15);
+
+        IntVector count = IntVector.zero(SPECIES).add(1, total.compare(VectorOperators.EQ, 15));
+        count = countSum(count, v0, complement);
+        count = countSum(count, v1, complement);
+        count = countSum(count, v2, complement);
+        count = countSum(count, v3, complement);
+        count = countSum(count, v4, complement);
+
+        count = countPair(count, v0.add(v1), complement);
+        count = countPair(count, v0.add(v2), complement);
+        count = countPair(count, v0.add(v3), complement);
+        count = countPair(count, v0.add(v4), complement);
+        count = countPair(count, v1.add(v2), complement);
+        count = countPair(count, v1.add(v3), complement);
+        count = countPair(count, v1.add(v4), complement);
+        count = countPair(count, v2.add(v3), complement);
+        count = countPair(count, v2.add(v4), complement);
+        count = countPair(count, v3.add(v4), complement);
+
+        return count.lanewise(VectorOperators.LSHL, 1);
+    }
+
+    // counts a four-card subset that makes 15, i.e. a single card whose value is T - 15
+    private static IntVector countSum(IntVector count, IntVector sum, IntVector target) {
+        return count.add(1, sum.compare(VectorOperators.EQ, target));
+    }
+
+    // counts a pair that makes 15, and the three cards left out of it when they make 15
+    private static IntVector countPair(IntVector count, IntVector pairSum, IntVector complement) {
+        return count.add(1, pairSum.compare(VectorOperators.EQ, 15))
+                .add(1, pairSum.compare(VectorOperators.EQ, complement));
+    }
+
+    private static IntVector pairs(IntVector r0, IntVector r1, IntVector r2, IntVector r3, IntVector r4) {
+        IntVector c0 = sameValue(r0, r0, r1, r2, r3, r4);
+        IntVector c1 = sameValue(r1, r0, r1, r2, r3, r4);
+        IntVector c2 = sameValue(r2, r0, r1, r2, r3, r4);
+        IntVector c3 = sameValue(r3, r0, r1, r2, r3, r4);
+        IntVector c4 = sameValue(r4, r0, r1, r2, r3, r4);
+
+        // the lowest value held more than once, and how many of it there are
+        IntVector lowest = lowestRepeated(r0, c0).min(lowestRepeated(r1, c1)).min(lowestRepeated(r2, c2))
+                .min(lowestRepeated(r3, c3)).min(lowestRepeated(r4, c4));
+        IntVector count = IntVector.zero(SPECIES)
+                .add(1, r0.compare(VectorOperators.EQ, lowest))
+                .add(1, r1.compare(VectorOperators.EQ, lowest))
+                .add(1, r2.compare(VectorOperators.EQ, lowest))
+                .add(1, r3.compare(VectorOperators.EQ, lowest))
+                .add(1, r4.compare(VectorOperators.EQ, lowest));
+
+        // 0 or 1 card scores nothing, 2 score 2, 3 score 6, 4 score 12
+        return count.mul(count.sub(1));
+    }
+
+    // the number of cards with the same value as r (including itself)
+    private static IntVector sameValue(IntVector r, IntVector r0, IntVector r1, IntVector r2, IntVector r3,
+                                       IntVector r4) {
+        return IntVector.zero(SPECIES)
+                .add(1, r.compare(VectorOperators.EQ, r0))
+                .add(1, r.compare(VectorOperators.EQ, r1))
+                .add(1, r.compare(VectorOperators.EQ, r2))
+                .add(1, r.compare(VectorOperators.EQ, r3))
+                .add(1, r.compare(VectorOperators.EQ, r4));
+    }
+
+    private static IntVector lowestRepeated(IntVector r, IntVector count) {
+        return IntVector.broadcast(SPECIES, NO_VALUE).blend(r, count.compare(VectorOperators.GE, 2));
+    }
+
+    private static IntVector runs(IntVector r0, IntVector r1, IntVector r2, IntVector r3, IntVector r4) {
+        IntVector present = bit(r0).or(bit(r1)).or(bit(r2)).or(bit(r3)).or(bit(r4));
+
+        IntVector starts = present.and(present.lanewise(VectorOperators.LSHR, 1))
+                .and(present.lanewise(VectorOperators.LSHR, 2));
+        IntVector run = starts.or(starts.lanewise(VectorOperators.LSHL, 1))
+                .or(starts.lanewise(VectorOperators.LSHL, 2));
+
+        IntVector distinct = run.lanewise(VectorOperators.BIT_COUNT);
+        IntVector size = inRun(run, r0).add(inRun(run, r1)).add(inRun(run, r2)).add(inRun(run, r3))
+                .add(inRun(run, r4));
+
+        // no run: distinct is 0, so this is 0
+        return distinct.mul(size.sub(distinct).add(1));
+    }
+
+    private static IntVector bit(IntVector r) {
+        return IntVector.broadcast(SPECIES, 1).lanewise(VectorOperators.LSHL, r);
+    }
+
+    private static IntVector inRun(IntVector run, IntVector r) {
+        return run.lanewise(VectorOperators.LSHR, r).and(1);
+    }
+
+    private static IntVector flush(IntVector s0, IntVector s1, IntVector s2, IntVector s3, IntVector s4,
+                                   VectorMask<Integer> crib) {
+        VectorMask<Integer> handFlush = s0.compare(VectorOperators.EQ, s1)
+                .and(s0.compare(VectorOperators.EQ, s2))
+                .and(s0.compare(VectorOperators.EQ, s3));
+        VectorMask<Integer> faceUpMatches = s0.compare(VectorOperators.EQ, s4);
+
+        // a crib's four matching cards only count with a matching faceUpCard
+        return IntVector.zero(SPECIES)
+                .add(4, handFlush.andNot(crib.andNot(faceUpMatches)))
+                .add(1, handFlush.and(faceUpMatches));
+    }
+
+}